@@ -0,0 +1,146 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import io.kubernetes.client.examples.controller.PriorityWorkQueue;
+import io.kubernetes.client.examples.controller.PriorityWorkQueue.Priority;
+import io.kubernetes.client.examples.models.V1ConfigClient;
+import io.kubernetes.client.informer.SharedIndexInformer;
+
+/**
+ * Webhook for config server change notifications. Only the ConfigClients whose URL
+ * matches the changed application, profile and label are requeued, and their cached
+ * environments are dropped so the next reconcile fetches fresh data. Callers have to
+ * send the shared token, and without one the endpoint is not registered at all.
+ *
+ */
+@RestController
+@ConditionalOnProperty("controller.webhook.token")
+class ConfigChangeController {
+
+	private static Log log = LogFactory.getLog(ConfigChangeController.class);
+
+	static final String TOKEN_HEADER = "X-Config-Token";
+
+	private final SharedIndexInformer<V1ConfigClient> informer;
+
+	private final ConfigClientIndex index;
+
+	private final PriorityWorkQueue queue;
+
+	private final EnvironmentFetcher fetcher;
+
+	private final ControllerProperties properties;
+
+	ConfigChangeController(SharedIndexInformer<V1ConfigClient> informer, ConfigClientIndex index,
+			PriorityWorkQueue queue, EnvironmentFetcher fetcher, ControllerProperties properties) {
+		this.informer = informer;
+		this.index = index;
+		this.queue = queue;
+		this.fetcher = fetcher;
+		this.properties = properties;
+	}
+
+	@PostMapping("/config-changes")
+	public ResponseEntity<Map<String, Object>> changed(@RequestBody ConfigChange change,
+			@RequestHeader(name = TOKEN_HEADER, required = false) String token) {
+		String expected = properties.getWebhook().getToken();
+		if (!StringUtils.hasText(expected) || token == null || !MessageDigest
+				.isEqual(expected.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8))) {
+			return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+		}
+		Collection<V1ConfigClient> candidates;
+		if (!StringUtils.hasText(change.getApplication())
+				|| ConfigServerUrls.SHARED_APPLICATION.equals(change.getApplication())) {
+			candidates = informer.getIndexer().list();
+		}
+		else {
+			candidates = index.byApplication(change.getApplication());
+		}
+		Set<String> urls = new HashSet<>();
+		int count = 0;
+		for (V1ConfigClient client : candidates) {
+			String url = client.getSpec() == null ? null : client.getSpec().getUrl();
+			if (ConfigServerUrls.matches(url, change.getApplication(), change.getProfile(), change.getLabel())) {
+				if (urls.add(url)) {
+					fetcher.evict(url);
+				}
+				queue.add(ConfigClientIndex.request(client), Priority.NORMAL);
+				count++;
+			}
+		}
+		log.info("Config change " + change + " requeued " + count + " ConfigClients");
+		return ResponseEntity.accepted().body(Map.of("requeued", count));
+	}
+
+	static class ConfigChange {
+
+		private String application;
+
+		private String profile;
+
+		private String label;
+
+		public String getApplication() {
+			return application;
+		}
+
+		public void setApplication(String application) {
+			this.application = application;
+		}
+
+		public String getProfile() {
+			return profile;
+		}
+
+		public void setProfile(String profile) {
+			this.profile = profile;
+		}
+
+		public String getLabel() {
+			return label;
+		}
+
+		public void setLabel(String label) {
+			this.label = label;
+		}
+
+		@Override
+		public String toString() {
+			return "[application=" + application + ", profile=" + profile + ", label=" + label + "]";
+		}
+
+	}
+
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javax.annotation.Nullable;
+
+import io.kubernetes.client.examples.models.V1ConfigClient;
+import io.kubernetes.client.extended.controller.reconciler.Request;
+import io.kubernetes.client.informer.ResourceEventHandler;
+import io.kubernetes.client.informer.SharedIndexInformer;
+import io.kubernetes.client.informer.cache.Indexer;
+
+/**
+ * Reverse indexes from config server URL (normalised), host and application name to the
+ * ConfigClients in the informer cache, so that lookups by URL are O(1) instead of a scan
+ * of the whole cache. The indexes have to be {@link #register(SharedIndexInformer)
+ * registered} before the informer starts.
+ *
+ */
+public class ConfigClientIndex {
+
+	public static final String URL = "url";
+
+	public static final String HOST = "host";
+
+	public static final String APPLICATION = "application";
+
+	private final SharedIndexInformer<V1ConfigClient> informer;
+
+	private ConfigClientIndex(SharedIndexInformer<V1ConfigClient> informer) {
+		this.informer = informer;
+	}
+
+	public static ConfigClientIndex register(SharedIndexInformer<V1ConfigClient> informer) {
+		informer.addIndexers(Map.of( //
+				URL, byUrl(ConfigServerUrls::normalize), //
+				HOST, byUrl(ConfigServerUrls::host), //
+				APPLICATION, client -> ConfigServerUrls.applications(url(client))));
+		return new ConfigClientIndex(informer);
+	}
+
+	private static Function<V1ConfigClient, List<String>> byUrl(Function<String, String> key) {
+		return client -> {
+			String url = url(client);
+			return url == null ? List.of() : List.of(key.apply(url));
+		};
+	}
+
+	public List<V1ConfigClient> byUrl(String url) {
+		return indexer().byIndex(URL, ConfigServerUrls.normalize(url));
+	}
+
+	public List<V1ConfigClient> byHost(String host) {
+		return indexer().byIndex(HOST, ConfigServerUrls.host(host.contains("://") ? host : "http://" + host));
+	}
+
+	public List<V1ConfigClient> byApplication(String application) {
+		return indexer().byIndex(APPLICATION, application);
+	}
+
+	/**
+	 * @return the cache keys (namespace/name) of the ConfigClients using the URL
+	 */
+	public List<String> keysByUrl(String url) {
+		return indexer().indexKeys(URL, ConfigServerUrls.normalize(url));
+	}
+
+	/**
+	 * @param listener called with a (normalised) URL once no ConfigClient in the cache
+	 * uses it any more, because the last one was deleted or moved to another URL
+	 */
+	public void onUnusedUrl(Consumer<String> listener) {
+		informer.addEventHandler(new ResourceEventHandler<V1ConfigClient>() {
+
+			@Override
+			public void onAdd(V1ConfigClient obj) {
+			}
+
+			@Override
+			public void onUpdate(V1ConfigClient oldObj, V1ConfigClient newObj) {
+				String url = url(oldObj);
+				if (url != null && (url(newObj) == null
+						|| !ConfigServerUrls.normalize(url).equals(ConfigServerUrls.normalize(url(newObj))))) {
+					released(url);
+				}
+			}
+
+			@Override
+			public void onDelete(V1ConfigClient obj, boolean deletedFinalStateUnknown) {
+				String url = url(obj);
+				if (url != null) {
+					released(url);
+				}
+			}
+
+			private void released(String url) {
+				if (keysByUrl(url).isEmpty()) {
+					listener.accept(ConfigServerUrls.normalize(url));
+				}
+			}
+
+		});
+	}
+
+	/**
+	 * Summarise the host index. This scans the cache, so is only meant for diagnostics.
+	 */
+	public SortedMap<String, SortedMap<String, TreeSet<String>>> hosts() {
+		SortedMap<String, SortedMap<String, TreeSet<String>>> result = new TreeMap<>();
+		for (V1ConfigClient client : indexer().list()) {
+			String url = url(client);
+			if (url != null) {
+				result.computeIfAbsent(ConfigServerUrls.host(url), key -> new TreeMap<>())
+						.computeIfAbsent(ConfigServerUrls.normalize(url), key -> new TreeSet<>())
+						.add(client.getMetadata().getNamespace() + "/" + client.getMetadata().getName());
+			}
+		}
+		return result;
+	}
+
+	public static Request request(V1ConfigClient client) {
+		return new Request(client.getMetadata().getNamespace(), client.getMetadata().getName());
+	}
+
+	private Indexer<V1ConfigClient> indexer() {
+		return informer.getIndexer();
+	}
+
+	@Nullable
+	private static String url(V1ConfigClient client) {
+		return client.getSpec() == null ? null : client.getSpec().getUrl();
+	}
+
+}
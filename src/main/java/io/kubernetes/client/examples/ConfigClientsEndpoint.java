@@ -0,0 +1,50 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+/**
+ * Actuator endpoint showing which ConfigClients use which config server hosts and URLs.
+ *
+ */
+@Endpoint(id = "configclients")
+public class ConfigClientsEndpoint {
+
+	private final ConfigClientIndex index;
+
+	public ConfigClientsEndpoint(ConfigClientIndex index) {
+		this.index = index;
+	}
+
+	@ReadOperation
+	public Map<String, SortedMap<String, TreeSet<String>>> hosts() {
+		return index.hosts();
+	}
+
+	@ReadOperation
+	public SortedMap<String, TreeSet<String>> host(@Selector String host) {
+		return index.hosts().getOrDefault(ConfigServerUrls.host("http://" + host), new TreeMap<>());
+	}
+
+}
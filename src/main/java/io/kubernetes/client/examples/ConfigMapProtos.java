@@ -0,0 +1,222 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.protobuf.ByteString;
+
+import io.kubernetes.client.openapi.models.V1ConfigMap;
+import io.kubernetes.client.openapi.models.V1ConfigMapList;
+import io.kubernetes.client.openapi.models.V1DeleteOptions;
+import io.kubernetes.client.openapi.models.V1ListMeta;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1OwnerReference;
+import io.kubernetes.client.openapi.models.V1Status;
+import io.kubernetes.client.proto.Meta;
+import io.kubernetes.client.proto.V1;
+
+/**
+ * Conversion between the ConfigMap models and their protobuf messages. Only the fields
+ * the controller reads or writes are carried over (the managed fields, for instance,
+ * are not), which is fine for objects that the controller owns.
+ *
+ */
+abstract class ConfigMapProtos {
+
+	static final String API_VERSION = "v1";
+
+	static final String KIND = "ConfigMap";
+
+	private ConfigMapProtos() {
+	}
+
+	static V1.ConfigMap toProto(V1ConfigMap map) {
+		V1.ConfigMap.Builder builder = V1.ConfigMap.newBuilder();
+		if (map.getMetadata() != null) {
+			builder.setMetadata(toProto(map.getMetadata()));
+		}
+		if (map.getData() != null) {
+			builder.putAllData(map.getData());
+		}
+		if (map.getBinaryData() != null) {
+			map.getBinaryData().forEach((key, value) -> builder.putBinaryData(key, ByteString.copyFrom(value)));
+		}
+		if (map.getImmutable() != null) {
+			builder.setImmutable(map.getImmutable());
+		}
+		return builder.build();
+	}
+
+	static V1ConfigMap fromProto(V1.ConfigMap proto) {
+		V1ConfigMap map = new V1ConfigMap();
+		map.setApiVersion(API_VERSION);
+		map.setKind(KIND);
+		if (proto.hasMetadata()) {
+			map.setMetadata(fromProto(proto.getMetadata()));
+		}
+		if (proto.getDataCount() > 0) {
+			map.setData(new LinkedHashMap<>(proto.getDataMap()));
+		}
+		if (proto.getBinaryDataCount() > 0) {
+			Map<String, byte[]> binary = new LinkedHashMap<>();
+			proto.getBinaryDataMap().forEach((key, value) -> binary.put(key, value.toByteArray()));
+			map.setBinaryData(binary);
+		}
+		if (proto.hasImmutable()) {
+			map.setImmutable(proto.getImmutable());
+		}
+		return map;
+	}
+
+	static V1ConfigMapList fromProto(V1.ConfigMapList proto) {
+		V1ConfigMapList list = new V1ConfigMapList();
+		list.setApiVersion(API_VERSION);
+		list.setKind(KIND + "List");
+		V1ListMeta metadata = new V1ListMeta();
+		if (proto.hasMetadata()) {
+			Meta.ListMeta meta = proto.getMetadata();
+			metadata.setResourceVersion(meta.hasResourceVersion() ? meta.getResourceVersion() : null);
+			metadata.setContinue(meta.hasContinue() ? meta.getContinue() : null);
+		}
+		list.setMetadata(metadata);
+		List<V1ConfigMap> items = new ArrayList<>(proto.getItemsCount());
+		for (V1.ConfigMap item : proto.getItemsList()) {
+			items.add(fromProto(item));
+		}
+		list.setItems(items);
+		return list;
+	}
+
+	static V1Status fromProto(Meta.Status proto) {
+		V1Status status = new V1Status();
+		status.setCode(proto.hasCode() && proto.getCode() != 0 ? proto.getCode() : null);
+		status.setMessage(proto.hasMessage() ? proto.getMessage() : null);
+		status.setReason(proto.hasReason() ? proto.getReason() : null);
+		status.setStatus(proto.hasStatus() ? proto.getStatus() : null);
+		return status;
+	}
+
+	static Meta.DeleteOptions toProto(V1DeleteOptions options) {
+		Meta.DeleteOptions.Builder builder = Meta.DeleteOptions.newBuilder();
+		if (options.getPreconditions() != null) {
+			Meta.Preconditions.Builder preconditions = Meta.Preconditions.newBuilder();
+			if (options.getPreconditions().getUid() != null) {
+				preconditions.setUid(options.getPreconditions().getUid());
+			}
+			if (options.getPreconditions().getResourceVersion() != null) {
+				preconditions.setResourceVersion(options.getPreconditions().getResourceVersion());
+			}
+			builder.setPreconditions(preconditions);
+		}
+		if (options.getGracePeriodSeconds() != null) {
+			builder.setGracePeriodSeconds(options.getGracePeriodSeconds());
+		}
+		if (options.getPropagationPolicy() != null) {
+			builder.setPropagationPolicy(options.getPropagationPolicy());
+		}
+		return builder.build();
+	}
+
+	private static Meta.ObjectMeta toProto(V1ObjectMeta metadata) {
+		Meta.ObjectMeta.Builder builder = Meta.ObjectMeta.newBuilder();
+		if (metadata.getName() != null) {
+			builder.setName(metadata.getName());
+		}
+		if (metadata.getNamespace() != null) {
+			builder.setNamespace(metadata.getNamespace());
+		}
+		if (metadata.getUid() != null) {
+			builder.setUid(metadata.getUid());
+		}
+		if (metadata.getResourceVersion() != null) {
+			builder.setResourceVersion(metadata.getResourceVersion());
+		}
+		if (metadata.getLabels() != null) {
+			builder.putAllLabels(metadata.getLabels());
+		}
+		if (metadata.getAnnotations() != null) {
+			builder.putAllAnnotations(metadata.getAnnotations());
+		}
+		if (metadata.getFinalizers() != null) {
+			builder.addAllFinalizers(metadata.getFinalizers());
+		}
+		if (metadata.getOwnerReferences() != null) {
+			for (V1OwnerReference owner : metadata.getOwnerReferences()) {
+				builder.addOwnerReferences(toProto(owner));
+			}
+		}
+		return builder.build();
+	}
+
+	private static V1ObjectMeta fromProto(Meta.ObjectMeta proto) {
+		V1ObjectMeta metadata = new V1ObjectMeta();
+		metadata.setName(proto.hasName() ? proto.getName() : null);
+		metadata.setNamespace(proto.hasNamespace() ? proto.getNamespace() : null);
+		metadata.setUid(proto.hasUid() ? proto.getUid() : null);
+		metadata.setResourceVersion(proto.hasResourceVersion() ? proto.getResourceVersion() : null);
+		metadata.setGeneration(proto.hasGeneration() ? proto.getGeneration() : null);
+		metadata.setCreationTimestamp(proto.hasCreationTimestamp() ? fromProto(proto.getCreationTimestamp()) : null);
+		metadata.setDeletionTimestamp(proto.hasDeletionTimestamp() ? fromProto(proto.getDeletionTimestamp()) : null);
+		if (proto.getLabelsCount() > 0) {
+			metadata.setLabels(new LinkedHashMap<>(proto.getLabelsMap()));
+		}
+		if (proto.getAnnotationsCount() > 0) {
+			metadata.setAnnotations(new LinkedHashMap<>(proto.getAnnotationsMap()));
+		}
+		if (proto.getFinalizersCount() > 0) {
+			metadata.setFinalizers(new ArrayList<>(proto.getFinalizersList()));
+		}
+		for (Meta.OwnerReference owner : proto.getOwnerReferencesList()) {
+			metadata.addOwnerReferencesItem(fromProto(owner));
+		}
+		return metadata;
+	}
+
+	private static Meta.OwnerReference toProto(V1OwnerReference owner) {
+		Meta.OwnerReference.Builder builder = Meta.OwnerReference.newBuilder().setApiVersion(owner.getApiVersion())
+				.setKind(owner.getKind()).setName(owner.getName()).setUid(owner.getUid());
+		if (owner.getController() != null) {
+			builder.setController(owner.getController());
+		}
+		if (owner.getBlockOwnerDeletion() != null) {
+			builder.setBlockOwnerDeletion(owner.getBlockOwnerDeletion());
+		}
+		return builder.build();
+	}
+
+	private static V1OwnerReference fromProto(Meta.OwnerReference proto) {
+		V1OwnerReference owner = new V1OwnerReference();
+		owner.setApiVersion(proto.getApiVersion());
+		owner.setKind(proto.getKind());
+		owner.setName(proto.getName());
+		owner.setUid(proto.getUid());
+		owner.setController(proto.hasController() ? proto.getController() : null);
+		owner.setBlockOwnerDeletion(proto.hasBlockOwnerDeletion() ? proto.getBlockOwnerDeletion() : null);
+		return owner;
+	}
+
+	private static OffsetDateTime fromProto(Meta.Time time) {
+		return Instant.ofEpochSecond(time.getSeconds(), time.getNanos()).atOffset(ZoneOffset.UTC);
+	}
+
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import io.kubernetes.client.openapi.models.V1ConfigMap;
+
+/**
+ * Reads the properties out of the ConfigMaps written by the controller, whatever their
+ * format. In the gzip format a ConfigMap has a single {@link #GZIP_ENTRY} in its
+ * <code>binaryData</code>: a properties file (UTF-8, sorted by key, no comments) that is
+ * gzipped, so the same data always has the same bytes. A properties file has no way to
+ * say null, so null values are written as empty strings.
+ *
+ */
+public abstract class ConfigMapReader {
+
+	public static final String DATA_FORMAT = "data";
+
+	public static final String GZIP_FORMAT = "gzip";
+
+	public static final String GZIP_ENTRY = "application.properties.gz";
+
+	private ConfigMapReader() {
+	}
+
+	/**
+	 * @return the properties from all the ConfigMaps (e.g. all the shards of one
+	 * environment), sorted by key
+	 */
+	public static Map<String, String> read(Iterable<V1ConfigMap> maps) {
+		Map<String, String> result = new TreeMap<>();
+		for (V1ConfigMap map : maps) {
+			result.putAll(read(map));
+		}
+		return result;
+	}
+
+	public static Map<String, String> read(V1ConfigMap map) {
+		Map<String, String> result = new TreeMap<>();
+		if (map.getData() != null) {
+			result.putAll(map.getData());
+		}
+		if (map.getBinaryData() != null && map.getBinaryData().containsKey(GZIP_ENTRY)) {
+			result.putAll(decode(map.getBinaryData().get(GZIP_ENTRY)));
+		}
+		return result;
+	}
+
+	static Map<String, String> decode(byte[] bytes) {
+		Properties properties = new Properties();
+		try (Reader reader = new InputStreamReader(new GZIPInputStream(new ByteArrayInputStream(bytes)),
+				StandardCharsets.UTF_8)) {
+			properties.load(reader);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		Map<String, String> result = new TreeMap<>();
+		for (String name : properties.stringPropertyNames()) {
+			result.put(name, properties.getProperty(name));
+		}
+		return result;
+	}
+
+	static byte[] encode(Map<String, String> data) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(bytes), StandardCharsets.UTF_8)) {
+			for (Map.Entry<String, String> entry : new TreeMap<>(data).entrySet()) {
+				writer.write(escape(entry.getKey(), true));
+				writer.write('=');
+				writer.write(escape(entry.getValue() == null ? "" : entry.getValue(), false));
+				writer.write('\n');
+			}
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static String escape(String value, boolean key) {
+		StringBuilder builder = new StringBuilder(value.length());
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '\\':
+				builder.append("\\\\");
+				break;
+			case '\n':
+				builder.append("\\n");
+				break;
+			case '\r':
+				builder.append("\\r");
+				break;
+			case '\t':
+				builder.append("\\t");
+				break;
+			case '\f':
+				builder.append("\\f");
+				break;
+			case ' ':
+				if (key || i == 0) {
+					builder.append('\\');
+				}
+				builder.append(c);
+				break;
+			case '=':
+			case ':':
+			case '#':
+			case '!':
+				if (key) {
+					builder.append('\\');
+				}
+				builder.append(c);
+				break;
+			default:
+				builder.append(c);
+			}
+		}
+		return builder.toString();
+	}
+
+}
@@ -0,0 +1,369 @@
+/*
+Copyright 2020 The Kubernetes Authors.
+Licensed under the Apache License, Version 2.0 (the "License");
+you may not use this file except in compliance with the License.
+You may obtain a copy of the License at
+http://www.apache.org/licenses/LICENSE-2.0
+Unless required by applicable law or agreed to in writing, software
+distributed under the License is distributed on an "AS IS" BASIS,
+WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+See the License for the specific language governing permissions and
+limitations under the License.
+*/
+package io.kubernetes.client.examples;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.annotation.Nullable;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestClientException;
+
+import io.kubernetes.client.examples.models.V1ConfigClient;
+import io.kubernetes.client.examples.models.V1ConfigClientStatus;
+import io.kubernetes.client.examples.reconciler.ChildProvider;
+import io.kubernetes.client.examples.reconciler.ChildReconciler;
+import io.kubernetes.client.examples.reconciler.KeyedChildProvider;
+import io.kubernetes.client.examples.reconciler.RequeueException;
+import io.kubernetes.client.openapi.models.V1ConfigMap;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+
+/**
+ * Builds the ConfigMaps for a ConfigClient. An environment that does not fit in one
+ * ConfigMap is split by hashing its keys into a power of two number of shards, so a key
+ * stays in the same shard until the shard count changes, and a small change only
+ * rewrites the shard that holds it. The first shard has the name of the ConfigClient and
+ * the others are called <code>{name}-shard-{i}</code>.
+ *
+ */
+class ConfigMapReconciler implements KeyedChildProvider<V1ConfigClient, V1ConfigMap> {
+
+	private static Log log = LogFactory.getLog(ConfigMapReconciler.class);
+
+	private static final Pattern INTERVAL = Pattern.compile("(\\d+)(ms|s|m|h)");
+
+	private static final Duration MIN_REFRESH = Duration.ofSeconds(1);
+
+	/**
+	 * Annotation carrying the fingerprint of the data, so that unchanged children can be
+	 * recognised without comparing every entry.
+	 */
+	static final String HASH_ANNOTATION = "spring.io/config-hash";
+
+	/**
+	 * Annotation carrying the number of shards, so consumers know how many ConfigMaps to
+	 * read.
+	 */
+	static final String SHARDS_ANNOTATION = "spring.io/config-shards";
+
+	/**
+	 * Annotation carrying the format of the data (see {@link ConfigMapReader}).
+	 */
+	static final String FORMAT_ANNOTATION = "spring.io/config-format";
+
+	static final String SHARD_SUFFIX = "-shard-";
+
+	private static final int MAX_SHARDS = 256;
+
+	/**
+	 * Rough allowance for the encoding of each entry (quotes, separators).
+	 */
+	private static final int ENTRY_OVERHEAD = 8;
+
+	private final EnvironmentFetcher fetcher;
+
+	private final int maxShardBytes;
+
+	private Duration rejectedRetry = Duration.ofMinutes(5);
+
+	ConfigMapReconciler(EnvironmentFetcher fetcher, int maxShardBytes) {
+		this.fetcher = fetcher;
+		this.maxShardBytes = maxShardBytes;
+	}
+
+	/**
+	 * @param rejectedRetry how long to wait before fetching a rejected (oversized)
+	 * environment again, if the ConfigClient has no refresh interval of its own
+	 */
+	void setRejectedRetry(Duration rejectedRetry) {
+		this.rejectedRetry = rejectedRetry;
+	}
+
+	@Override
+	public void mergeBeforeUpdate(V1ConfigMap current, V1ConfigMap desired) {
+		current.setData(desired.getData());
+		current.setBinaryData(desired.getBinaryData());
+		copyAnnotation(current, desired, HASH_ANNOTATION);
+		copyAnnotation(current, desired, SHARDS_ANNOTATION);
+		copyAnnotation(current, desired, FORMAT_ANNOTATION);
+	}
+
+	private static void copyAnnotation(V1ConfigMap current, V1ConfigMap desired, String name) {
+		String value = annotation(desired, name);
+		if (value != null) {
+			current.getMetadata().putAnnotationsItem(name, value);
+		}
+		else if (current.getMetadata().getAnnotations() != null) {
+			current.getMetadata().getAnnotations().remove(name);
+		}
+	}
+
+	@Override
+	public boolean semanticEquals(V1ConfigMap actual, V1ConfigMap desired) {
+		String hash = annotation(desired, HASH_ANNOTATION);
+		if (hash == null) {
+			return annotation(actual, HASH_ANNOTATION) == null
+					&& ChildProvider.mapEquals(desired.getData(), actual.getData());
+		}
+		// The annotations only say whether the environment changed, the data itself might
+		// have been edited since it was written
+		return hash.equals(annotation(actual, HASH_ANNOTATION))
+				&& Objects.equals(annotation(desired, SHARDS_ANNOTATION), annotation(actual, SHARDS_ANNOTATION))
+				&& Objects.equals(annotation(desired, FORMAT_ANNOTATION), annotation(actual, FORMAT_ANNOTATION))
+				&& ChildProvider.mapEquals(desired.getData(), actual.getData())
+				&& binaryDataEquals(actual.getBinaryData(), desired.getBinaryData());
+	}
+
+	private static boolean binaryDataEquals(@Nullable Map<String, byte[]> actual,
+			@Nullable Map<String, byte[]> desired) {
+		Map<String, byte[]> left = actual == null ? Collections.emptyMap() : actual;
+		Map<String, byte[]> right = desired == null ? Collections.emptyMap() : desired;
+		if (!left.keySet().equals(right.keySet())) {
+			return false;
+		}
+		for (Map.Entry<String, byte[]> entry : right.entrySet()) {
+			byte[] bytes = left.get(entry.getKey());
+			if (Arrays.equals(bytes, entry.getValue())) {
+				continue;
+			}
+			// The same properties gzipped by a different JVM need not be the same bytes
+			if (!ConfigMapReader.GZIP_ENTRY.equals(entry.getKey()) || bytes == null
+					|| !decodes(bytes, ConfigMapReader.decode(entry.getValue()))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean decodes(byte[] bytes, Map<String, String> expected) {
+		try {
+			return ConfigMapReader.decode(bytes).equals(expected);
+		}
+		catch (UncheckedIOException e) {
+			return false;
+		}
+	}
+
+	@Nullable
+	private static String annotation(V1ConfigMap map, String name) {
+		Map<String, String> annotations = map.getMetadata().getAnnotations();
+		return annotations == null ? null : annotations.get(name);
+	}
+
+	@Override
+	public Map<String, V1ConfigMap> desiredChildren(V1ConfigClient node) {
+		if (node.getStatus() == null) {
+			node.setStatus(new V1ConfigClientStatus());
+		}
+		EnvironmentSnapshot environment;
+		try {
+			environment = fetchEnvironment(node);
+		}
+		catch (RequeueException e) {
+			node.getStatus().setComplete(false);
+			node.getStatus().setMessage(e.getMessage());
+			throw e;
+		}
+		Map<String, V1ConfigMap> result = new LinkedHashMap<>();
+		boolean gzip = ConfigMapReader.GZIP_FORMAT.equalsIgnoreCase(node.getSpec().getFormat());
+		List<Map<String, String>> shards = shard(environment.getData(), maxShardBytes);
+		for (int i = 0; i < shards.size(); i++) {
+			V1ConfigMap config = configMap(node, i);
+			Map<String, String> data = shards.get(i);
+			if (gzip) {
+				config.setBinaryData(Map.of(ConfigMapReader.GZIP_ENTRY, ConfigMapReader.encode(data)));
+				config.getMetadata().putAnnotationsItem(FORMAT_ANNOTATION, ConfigMapReader.GZIP_FORMAT);
+			}
+			else {
+				config.setData(data);
+			}
+			config.getMetadata().putAnnotationsItem(HASH_ANNOTATION,
+					shards.size() == 1 ? environment.getFingerprint() : EnvironmentSnapshot.fingerprint(data));
+			config.getMetadata().putAnnotationsItem(SHARDS_ANNOTATION, String.valueOf(shards.size()));
+			result.put(shardKey(i), config);
+		}
+		node.getStatus().setComplete(true);
+		node.getStatus().setMessage(null);
+		return result;
+	}
+
+	private static V1ConfigMap configMap(V1ConfigClient node, int shard) {
+		var config = new V1ConfigMap();
+		config.setApiVersion("v1");
+		config.setKind("ConfigMap");
+
+		var metadata = new V1ObjectMeta();
+		metadata.setName(shard == 0 ? node.getMetadata().getName()
+				: node.getMetadata().getName() + SHARD_SUFFIX + shard);
+		metadata.setNamespace(node.getMetadata().getNamespace());
+
+		config.setMetadata(metadata);
+		return config;
+	}
+
+	/**
+	 * The first shard keeps the key a single child has always had.
+	 */
+	private static String shardKey(int shard) {
+		return shard == 0 ? ChildReconciler.DEFAULT_KEY : "shard-" + shard;
+	}
+
+	/**
+	 * Split the data into the smallest power of two number of shards where none is
+	 * bigger than the limit (unless a single entry is). Each key goes to the shard picked
+	 * by its hash, so for a given shard count the split only depends on the keys. Sizes
+	 * are measured before compression, so gzipped shards are always well inside the limit.
+	 */
+	static List<Map<String, String>> shard(Map<String, String> data, int maxBytes) {
+		int count = 1;
+		List<Map<String, String>> shards = split(data, count);
+		while (count < MAX_SHARDS && isOversized(shards, maxBytes)) {
+			count *= 2;
+			shards = split(data, count);
+		}
+		return shards;
+	}
+
+	private static List<Map<String, String>> split(Map<String, String> data, int count) {
+		List<Map<String, String>> shards = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			shards.add(new TreeMap<>());
+		}
+		for (Map.Entry<String, String> entry : data.entrySet()) {
+			int hash = entry.getKey().hashCode();
+			shards.get((hash ^ (hash >>> 16)) & (count - 1)).put(entry.getKey(), entry.getValue());
+		}
+		List<Map<String, String>> result = new ArrayList<>(count);
+		for (Map<String, String> shard : shards) {
+			result.add(Collections.unmodifiableMap(shard));
+		}
+		return result;
+	}
+
+	private static boolean isOversized(List<Map<String, String>> shards, int maxBytes) {
+		for (Map<String, String> shard : shards) {
+			if (shard.size() > 1 && size(shard) > maxBytes) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static long size(Map<String, String> data) {
+		long size = 0;
+		for (Map.Entry<String, String> entry : data.entrySet()) {
+			size += entry.getKey().getBytes(StandardCharsets.UTF_8).length
+					+ String.valueOf(entry.getValue()).getBytes(StandardCharsets.UTF_8).length + ENTRY_OVERHEAD;
+		}
+		return size;
+	}
+
+	@Override
+	public Duration requeueAfter(V1ConfigClient node) {
+		Duration interval = refreshInterval(node);
+		if (interval != null) {
+			return interval;
+		}
+		Duration maxAge = fetcher.getMaxAge(node.getSpec().getUrl());
+		return maxAge == null ? null : atLeast(maxAge);
+	}
+
+	/**
+	 * @return the refresh interval from the spec, or null if there is no usable one
+	 */
+	@Nullable
+	static Duration refreshInterval(V1ConfigClient node) {
+		String interval = node.getSpec().getRefreshInterval();
+		if (StringUtils.hasText(interval)) {
+			try {
+				return atLeast(parseInterval(interval));
+			}
+			catch (IllegalArgumentException | DateTimeParseException e) {
+				log.warn("Ignoring refresh interval for " + node.getMetadata().getName() + ": " + e.getMessage());
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Parse a Kubernetes style duration like "90s", "5m" or "1h30m" (or an ISO-8601 one).
+	 */
+	static Duration parseInterval(String value) {
+		String text = value.trim();
+		if (text.startsWith("P") || text.startsWith("p")) {
+			return Duration.parse(text);
+		}
+		Matcher matcher = INTERVAL.matcher(text);
+		Duration result = Duration.ZERO;
+		int end = 0;
+		while (matcher.find() && matcher.start() == end) {
+			long amount = Long.parseLong(matcher.group(1));
+			switch (matcher.group(2)) {
+			case "ms":
+				result = result.plusMillis(amount);
+				break;
+			case "s":
+				result = result.plusSeconds(amount);
+				break;
+			case "m":
+				result = result.plusMinutes(amount);
+				break;
+			default:
+				result = result.plusHours(amount);
+			}
+			end = matcher.end();
+		}
+		if (end == 0 || end != text.length()) {
+			throw new IllegalArgumentException("Cannot parse interval '" + value + "'");
+		}
+		return result;
+	}
+
+	private static Duration atLeast(Duration interval) {
+		return interval.compareTo(MIN_REFRESH) < 0 ? MIN_REFRESH : interval;
+	}
+
+	private EnvironmentSnapshot fetchEnvironment(V1ConfigClient node) {
+		try {
+			return fetcher.fetch(node.getSpec().getUrl());
+		} //
+		catch (EnvironmentTooLargeException e) {
+			// Leave the ConfigMaps as they are instead of emptying them (here and below)
+			log.warn("Rejected environment for " + node.getMetadata().getName() + ": " + e.getMessage());
+			Duration requeueAfter = requeueAfter(node);
+			throw new RequeueException("Config server response rejected: " + e.getMessage(),
+					requeueAfter == null ? rejectedRetry : requeueAfter);
+		}
+		catch (RestClientException e) {
+			log.warn("Cannot fetch environment for " + node.getMetadata().getName(), e);
+			// No delay, so the retry backs off through the rate limiter
+			throw new RequeueException("Cannot fetch environment: " + e.getMessage(), null);
+		}
+	}
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+import org.springframework.web.client.HttpClientErrorException;
+
+import io.kubernetes.client.examples.ControllerProperties.ConfigServer;
+import io.kubernetes.client.examples.reconciler.RequeueException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * A circuit breaker and concurrency bulkhead per config server host, so that one slow
+ * or broken host cannot tie up all the controller workers. Calls that are rejected fail
+ * fast with a {@link RequeueException} carrying the time to wait before trying again.
+ *
+ */
+public class ConfigServerCircuitBreakers {
+
+	private final Map<String, HostBreaker> hosts = new ConcurrentHashMap<>();
+
+	private final ConfigServer config;
+
+	private final MeterRegistry registry;
+
+	private final Clock clock;
+
+	public ConfigServerCircuitBreakers(ConfigServer config, MeterRegistry registry) {
+		this(config, registry, Clock.systemUTC());
+	}
+
+	ConfigServerCircuitBreakers(ConfigServer config, MeterRegistry registry, Clock clock) {
+		this.config = config;
+		this.registry = registry;
+		this.clock = clock;
+	}
+
+	public <T> T execute(String url, Supplier<T> call) {
+		HostBreaker breaker = hosts.computeIfAbsent(ConfigServerUrls.host(url), HostBreaker::new);
+		Duration retryAfter = breaker.acquire();
+		if (retryAfter != null) {
+			throw new RequeueException("Circuit open for " + breaker.host, retryAfter);
+		}
+		if (!breaker.bulkhead.tryAcquire()) {
+			breaker.release(null);
+			breaker.rejectedBulkhead.increment();
+			throw new RequeueException("Too many concurrent requests to " + breaker.host,
+					config.getBulkheadRetryAfter());
+		}
+		try {
+			T result = call.get();
+			breaker.release(true);
+			return result;
+		}
+		catch (HttpClientErrorException | EnvironmentTooLargeException e) {
+			// The host answered, it just didn't like the request (or we didn't like the answer)
+			breaker.release(true);
+			throw e;
+		}
+		catch (RuntimeException | Error e) {
+			breaker.release(false);
+			throw e;
+		}
+		finally {
+			breaker.bulkhead.release();
+		}
+	}
+
+	public State getState(String url) {
+		HostBreaker breaker = hosts.get(ConfigServerUrls.host(url));
+		return breaker == null ? State.CLOSED : breaker.state;
+	}
+
+	public enum State {
+
+		CLOSED, HALF_OPEN, OPEN;
+
+	}
+
+	private class HostBreaker {
+
+		private final String host;
+
+		private final Semaphore bulkhead;
+
+		private final Counter rejectedOpen;
+
+		private final Counter rejectedBulkhead;
+
+		private volatile State state = State.CLOSED;
+
+		private int failures;
+
+		private Instant openedAt;
+
+		private boolean trialInFlight;
+
+		HostBreaker(String host) {
+			this.host = host;
+			this.bulkhead = new Semaphore(Math.max(1, config.getMaxConcurrentPerHost()));
+			Gauge.builder("configserver.circuit.state", this, breaker -> breaker.state.ordinal()).tag("host", host)
+					.description("0=closed, 1=half-open, 2=open").register(registry);
+			Gauge.builder("configserver.bulkhead.available", bulkhead, Semaphore::availablePermits)
+					.tag("host", host).register(registry);
+			this.rejectedOpen = Counter.builder("configserver.circuit.rejected").tag("host", host)
+					.tag("reason", "open").register(registry);
+			this.rejectedBulkhead = Counter.builder("configserver.circuit.rejected").tag("host", host)
+					.tag("reason", "bulkhead").register(registry);
+		}
+
+		/**
+		 * @return null if the call may proceed, otherwise how long to wait
+		 */
+		synchronized Duration acquire() {
+			Instant now = clock.instant();
+			if (state == State.OPEN) {
+				Instant retryAt = openedAt.plus(config.getOpenDuration());
+				if (now.isBefore(retryAt)) {
+					rejectedOpen.increment();
+					return Duration.between(now, retryAt);
+				}
+				state = State.HALF_OPEN;
+			}
+			if (state == State.HALF_OPEN) {
+				if (trialInFlight) {
+					rejectedOpen.increment();
+					return config.getBulkheadRetryAfter();
+				}
+				trialInFlight = true;
+			}
+			return null;
+		}
+
+		/**
+		 * @param success the outcome of the call, or null if it never happened
+		 */
+		synchronized void release(Boolean success) {
+			if (state == State.HALF_OPEN) {
+				trialInFlight = false;
+			}
+			if (success == null) {
+				return;
+			}
+			if (success) {
+				failures = 0;
+				state = State.CLOSED;
+				return;
+			}
+			failures++;
+			if (state == State.HALF_OPEN || failures >= config.getFailureThreshold()) {
+				state = State.OPEN;
+				openedAt = clock.instant();
+			}
+		}
+
+	}
+
+}
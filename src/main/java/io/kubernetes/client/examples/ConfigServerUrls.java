@@ -0,0 +1,185 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * Helpers for config server URLs of the form
+ * <code>http://host/[prefix/]{application}/{profile}[/{label}]</code>. Without knowing
+ * the server's prefix the last segments are ambiguous, so both readings are considered.
+ *
+ */
+abstract class ConfigServerUrls {
+
+	/**
+	 * The name Spring Cloud Config uses for properties shared by all applications.
+	 */
+	static final String SHARED_APPLICATION = "application";
+
+	private ConfigServerUrls() {
+	}
+
+	/**
+	 * Normalise a URL so that trivially different spellings of the same resource
+	 * compare equal: lower case scheme and host, no default port, no fragment and no
+	 * trailing slash.
+	 */
+	static String normalize(@Nullable String url) {
+		if (url == null) {
+			return "";
+		}
+		try {
+			URI uri = URI.create(url.trim());
+			if (uri.getScheme() == null || uri.getHost() == null) {
+				return url.trim();
+			}
+			String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+			StringBuilder builder = new StringBuilder(scheme).append("://").append(host(uri));
+			String path = uri.getRawPath();
+			if (path != null) {
+				while (path.endsWith("/")) {
+					path = path.substring(0, path.length() - 1);
+				}
+				builder.append(path);
+			}
+			if (uri.getRawQuery() != null) {
+				builder.append('?').append(uri.getRawQuery());
+			}
+			return builder.toString();
+		}
+		catch (IllegalArgumentException e) {
+			return url.trim();
+		}
+	}
+
+	/**
+	 * @return the host and (non-default) port of the URL, in lower case
+	 */
+	static String host(@Nullable String url) {
+		if (url == null) {
+			return "";
+		}
+		try {
+			URI uri = URI.create(url.trim());
+			if (uri.getHost() != null) {
+				return host(uri);
+			}
+		}
+		catch (IllegalArgumentException e) {
+			// fall through
+		}
+		return url;
+	}
+
+	private static String host(URI uri) {
+		String host = uri.getHost().toLowerCase(Locale.ROOT);
+		int port = uri.getPort();
+		if (port < 0 || port == 80 && "http".equalsIgnoreCase(uri.getScheme())
+				|| port == 443 && "https".equalsIgnoreCase(uri.getScheme())) {
+			return host;
+		}
+		return host + ":" + port;
+	}
+
+	static List<String> applications(@Nullable String url) {
+		Set<String> result = new LinkedHashSet<>();
+		for (Resource resource : resources(url)) {
+			result.add(resource.application);
+		}
+		return new ArrayList<>(result);
+	}
+
+	/**
+	 * @param application the application that changed, or null for any
+	 * @param profile the profile that changed, or null for any
+	 * @param label the label that changed, or null for any
+	 */
+	static boolean matches(@Nullable String url, @Nullable String application, @Nullable String profile,
+			@Nullable String label) {
+		for (Resource resource : resources(url)) {
+			if (resource.matches(application, profile, label)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static List<Resource> resources(@Nullable String url) {
+		List<Resource> result = new ArrayList<>();
+		if (url == null) {
+			return result;
+		}
+		String path;
+		try {
+			path = URI.create(url).getPath();
+		}
+		catch (IllegalArgumentException e) {
+			return result;
+		}
+		if (path == null) {
+			return result;
+		}
+		String[] segments = StringUtils.tokenizeToStringArray(path, "/");
+		int n = segments.length;
+		if (n >= 3) {
+			result.add(new Resource(segments[n - 3], segments[n - 2], segments[n - 1]));
+		}
+		if (n >= 2) {
+			result.add(new Resource(segments[n - 2], segments[n - 1], null));
+		}
+		return result;
+	}
+
+	private static class Resource {
+
+		private final String application;
+
+		private final List<String> profiles;
+
+		private final String label;
+
+		Resource(String application, String profiles, @Nullable String label) {
+			this.application = application;
+			this.profiles = Arrays.asList(StringUtils.commaDelimitedListToStringArray(profiles));
+			this.label = label;
+		}
+
+		boolean matches(@Nullable String application, @Nullable String profile, @Nullable String label) {
+			if (StringUtils.hasText(application) && !SHARED_APPLICATION.equals(application)
+					&& !application.equals(this.application)) {
+				return false;
+			}
+			if (StringUtils.hasText(profile) && !this.profiles.contains(profile)) {
+				return false;
+			}
+			// A URL without a label follows the server's default, which we don't know
+			return !StringUtils.hasText(label) || this.label == null || label.equals(this.label);
+		}
+
+	}
+
+}
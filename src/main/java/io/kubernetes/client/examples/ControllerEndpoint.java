@@ -0,0 +1,106 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import io.kubernetes.client.examples.controller.PrioritizedControllerWatch;
+import io.kubernetes.client.examples.controller.PriorityWorkQueue;
+import io.kubernetes.client.examples.controller.PriorityWorkQueue.Priority;
+import io.kubernetes.client.examples.controller.TrackingReconciler;
+import io.kubernetes.client.informer.SharedIndexInformer;
+
+/**
+ * Actuator endpoint showing what the controller is doing: the work queue, the busy
+ * workers, keys that keep failing and the state of the informer caches. Times are in
+ * milliseconds.
+ *
+ */
+@Endpoint(id = "controller")
+public class ControllerEndpoint {
+
+	private final PriorityWorkQueue queue;
+
+	private final TrackingReconciler reconciler;
+
+	private final PrioritizedControllerWatch<?> watch;
+
+	private final Map<String, SharedIndexInformer<?>> informers;
+
+	public ControllerEndpoint(PriorityWorkQueue queue, TrackingReconciler reconciler,
+			PrioritizedControllerWatch<?> watch, Map<String, SharedIndexInformer<?>> informers) {
+		this.queue = queue;
+		this.reconciler = reconciler;
+		this.watch = watch;
+		this.informers = informers;
+	}
+
+	@ReadOperation
+	public Map<String, Object> controller() {
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("queue", queue());
+		result.put("workers", reconciler.workers());
+		result.put("retries", reconciler.retries());
+		result.put("informers", informers());
+		return result;
+	}
+
+	private Map<String, Object> queue() {
+		Map<String, Object> result = new LinkedHashMap<>();
+		Map<String, Integer> depth = new LinkedHashMap<>();
+		for (Priority priority : Priority.values()) {
+			depth.put(priority.name().toLowerCase(), queue.length(priority));
+		}
+		result.put("depth", depth);
+		Map<String, Integer> namespaces = new TreeMap<>(queue.lengthByNamespace());
+		if (!namespaces.isEmpty()) {
+			result.put("namespaces", namespaces);
+		}
+		result.put("delayed", queue.delayed());
+		result.put("oldestWait", queue.oldestWait().toMillis());
+		List<String> inFlight = queue.processing().stream()
+				.map(request -> request.getNamespace() + "/" + request.getName()).sorted()
+				.collect(Collectors.toList());
+		result.put("inFlight", inFlight);
+		return result;
+	}
+
+	private Map<String, Object> informers() {
+		Map<String, Object> result = new TreeMap<>();
+		informers.forEach((name, informer) -> {
+			Map<String, Object> state = new LinkedHashMap<>();
+			state.put("synced", informer.hasSynced());
+			state.put("size", informer.getIndexer().listKeys().size());
+			state.put("resourceVersion", informer.lastSyncResourceVersion());
+			result.put(name, state);
+		});
+		Instant lastEvent = watch.getLastEvent();
+		if (lastEvent != null) {
+			result.put("sinceLastEvent", Duration.between(lastEvent, Instant.now()).toMillis());
+		}
+		return result;
+	}
+
+}
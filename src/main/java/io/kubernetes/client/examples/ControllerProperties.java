@@ -0,0 +1,746 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import io.kubernetes.client.examples.controller.ChangePredicates.Change;
+import io.kubernetes.client.examples.reconciler.ChildReconciler;
+
+/**
+ * Tuning knobs for the config client controller.
+ *
+ */
+@ConfigurationProperties("controller")
+public class ControllerProperties {
+
+	/**
+	 * Number of reconcile worker threads.
+	 */
+	private int workers = 2;
+
+	private final ConfigServer configServer = new ConfigServer();
+
+	private final Resync resync = new Resync();
+
+	private final Webhook webhook = new Webhook();
+
+	private final Children children = new Children();
+
+	private final Snapshot snapshot = new Snapshot();
+
+	private final Watch watch = new Watch();
+
+	private final Api api = new Api();
+
+	private final Queue queue = new Queue();
+
+	private final Recording recording = new Recording();
+
+	public int getWorkers() {
+		return workers;
+	}
+
+	public void setWorkers(int workers) {
+		this.workers = workers;
+	}
+
+	public ConfigServer getConfigServer() {
+		return configServer;
+	}
+
+	public Resync getResync() {
+		return resync;
+	}
+
+	public Webhook getWebhook() {
+		return webhook;
+	}
+
+	public Children getChildren() {
+		return children;
+	}
+
+	public Snapshot getSnapshot() {
+		return snapshot;
+	}
+
+	public Watch getWatch() {
+		return watch;
+	}
+
+	public Api getApi() {
+		return api;
+	}
+
+	public Queue getQueue() {
+		return queue;
+	}
+
+	public Recording getRecording() {
+		return recording;
+	}
+
+	public static class ConfigServer {
+
+		/**
+		 * Connect timeout for requests to a config server.
+		 */
+		private Duration connectTimeout = Duration.ofSeconds(2);
+
+		/**
+		 * Read timeout for requests to a config server.
+		 */
+		private Duration readTimeout = Duration.ofSeconds(10);
+
+		/**
+		 * Number of consecutive failures that opens the circuit for a host.
+		 */
+		private int failureThreshold = 5;
+
+		/**
+		 * How long a circuit stays open before a single trial request is let through.
+		 */
+		private Duration openDuration = Duration.ofSeconds(30);
+
+		/**
+		 * Maximum number of concurrent fetches from a single host.
+		 */
+		private int maxConcurrentPerHost = 1;
+
+		/**
+		 * Requeue delay for a reconcile rejected because its host was busy.
+		 */
+		private Duration bulkheadRetryAfter = Duration.ofSeconds(1);
+
+		/**
+		 * How long a fetched environment is shared with other ConfigClients that use the
+		 * same URL.
+		 */
+		private Duration batchWindow = Duration.ofSeconds(2);
+
+		/**
+		 * Largest config server response that is read. Bigger ones are rejected (and the
+		 * ConfigClient marked incomplete) without being read into memory.
+		 */
+		private DataSize maxResponseSize = DataSize.ofMegabytes(4);
+
+		/**
+		 * Maximum number of properties in a config server response, over all its
+		 * property sources.
+		 */
+		private int maxProperties = 10000;
+
+		/**
+		 * How long to wait before fetching a rejected (too large) response again, for
+		 * ConfigClients without a refresh interval of their own.
+		 */
+		private Duration rejectedRetry = Duration.ofMinutes(5);
+
+		public Duration getConnectTimeout() {
+			return connectTimeout;
+		}
+
+		public void setConnectTimeout(Duration connectTimeout) {
+			this.connectTimeout = connectTimeout;
+		}
+
+		public Duration getReadTimeout() {
+			return readTimeout;
+		}
+
+		public void setReadTimeout(Duration readTimeout) {
+			this.readTimeout = readTimeout;
+		}
+
+		public int getFailureThreshold() {
+			return failureThreshold;
+		}
+
+		public void setFailureThreshold(int failureThreshold) {
+			this.failureThreshold = failureThreshold;
+		}
+
+		public Duration getOpenDuration() {
+			return openDuration;
+		}
+
+		public void setOpenDuration(Duration openDuration) {
+			this.openDuration = openDuration;
+		}
+
+		public int getMaxConcurrentPerHost() {
+			return maxConcurrentPerHost;
+		}
+
+		public void setMaxConcurrentPerHost(int maxConcurrentPerHost) {
+			this.maxConcurrentPerHost = maxConcurrentPerHost;
+		}
+
+		public Duration getBulkheadRetryAfter() {
+			return bulkheadRetryAfter;
+		}
+
+		public void setBulkheadRetryAfter(Duration bulkheadRetryAfter) {
+			this.bulkheadRetryAfter = bulkheadRetryAfter;
+		}
+
+		public Duration getBatchWindow() {
+			return batchWindow;
+		}
+
+		public void setBatchWindow(Duration batchWindow) {
+			this.batchWindow = batchWindow;
+		}
+
+		public DataSize getMaxResponseSize() {
+			return maxResponseSize;
+		}
+
+		public void setMaxResponseSize(DataSize maxResponseSize) {
+			this.maxResponseSize = maxResponseSize;
+		}
+
+		public int getMaxProperties() {
+			return maxProperties;
+		}
+
+		public void setMaxProperties(int maxProperties) {
+			this.maxProperties = maxProperties;
+		}
+
+		public Duration getRejectedRetry() {
+			return rejectedRetry;
+		}
+
+		public void setRejectedRetry(Duration rejectedRetry) {
+			this.rejectedRetry = rejectedRetry;
+		}
+
+	}
+
+	public static class Resync {
+
+		/**
+		 * Time taken for one pass over all resources, unless a fixed pace is set. Zero
+		 * switches off resync.
+		 */
+		private Duration period = Duration.ofHours(1);
+
+		/**
+		 * Fixed resync pace. Zero means spread each pass evenly over the period.
+		 */
+		private double itemsPerSecond;
+
+		public Duration getPeriod() {
+			return period;
+		}
+
+		public void setPeriod(Duration period) {
+			this.period = period;
+		}
+
+		public double getItemsPerSecond() {
+			return itemsPerSecond;
+		}
+
+		public void setItemsPerSecond(double itemsPerSecond) {
+			this.itemsPerSecond = itemsPerSecond;
+		}
+
+	}
+
+	public static class Webhook {
+
+		/**
+		 * Shared secret that config change notifications must send in the X-Config-Token
+		 * header. Without one the config change endpoint is switched off.
+		 */
+		private String token;
+
+		public String getToken() {
+			return token;
+		}
+
+		public void setToken(String token) {
+			this.token = token;
+		}
+
+	}
+
+	public static class Children {
+
+		/**
+		 * Value of the app.kubernetes.io/managed-by label on the ConfigMaps we create.
+		 */
+		private String managedBy = ChildReconciler.DEFAULT_MANAGED_BY;
+
+		/**
+		 * Maximum number of ConfigMaps fetched per list request.
+		 */
+		private int pageSize = 500;
+
+		/**
+		 * How often to look for ConfigMaps whose ConfigClient has gone. Zero switches the
+		 * sweep off.
+		 */
+		private Duration sweepInterval = Duration.ofMinutes(5);
+
+		/**
+		 * ConfigMaps younger than this are never swept.
+		 */
+		private Duration sweepGracePeriod = Duration.ofMinutes(1);
+
+		/**
+		 * Maximum number of background deletes in flight.
+		 */
+		private int deleteConcurrency = 2;
+
+		/**
+		 * Maximum size of the data in one ConfigMap. Larger environments are split into
+		 * shards, leaving headroom below the 1MiB object limit for metadata.
+		 */
+		private int maxShardBytes = 512 * 1024;
+
+		public String getManagedBy() {
+			return managedBy;
+		}
+
+		public void setManagedBy(String managedBy) {
+			this.managedBy = managedBy;
+		}
+
+		public int getPageSize() {
+			return pageSize;
+		}
+
+		public void setPageSize(int pageSize) {
+			this.pageSize = pageSize;
+		}
+
+		public Duration getSweepInterval() {
+			return sweepInterval;
+		}
+
+		public void setSweepInterval(Duration sweepInterval) {
+			this.sweepInterval = sweepInterval;
+		}
+
+		public Duration getSweepGracePeriod() {
+			return sweepGracePeriod;
+		}
+
+		public void setSweepGracePeriod(Duration sweepGracePeriod) {
+			this.sweepGracePeriod = sweepGracePeriod;
+		}
+
+		public int getDeleteConcurrency() {
+			return deleteConcurrency;
+		}
+
+		public void setDeleteConcurrency(int deleteConcurrency) {
+			this.deleteConcurrency = deleteConcurrency;
+		}
+
+		public int getMaxShardBytes() {
+			return maxShardBytes;
+		}
+
+		public void setMaxShardBytes(int maxShardBytes) {
+			this.maxShardBytes = maxShardBytes;
+		}
+
+	}
+
+	public static class Snapshot {
+
+		/**
+		 * File to keep a snapshot of the ConfigClient cache in (e.g. on an emptyDir
+		 * volume), so restarts do not have to list and reconcile everything. Empty
+		 * switches the snapshot off.
+		 */
+		private String file;
+
+		/**
+		 * How often to save the snapshot. It is also saved on shutdown.
+		 */
+		private Duration interval = Duration.ofMinutes(1);
+
+		public String getFile() {
+			return file;
+		}
+
+		public void setFile(String file) {
+			this.file = file;
+		}
+
+		public Duration getInterval() {
+			return interval;
+		}
+
+		public void setInterval(Duration interval) {
+			this.interval = interval;
+		}
+
+	}
+
+	public static class Watch {
+
+		/**
+		 * Ask the API server for bookmark events, so that watches can resume from a
+		 * recent resource version.
+		 */
+		private boolean bookmarks = true;
+
+		/**
+		 * Backoff before a list or watch that follows too soon after the previous one.
+		 */
+		private Duration initialBackoff = Duration.ofSeconds(1);
+
+		/**
+		 * Longest backoff between lists or watches.
+		 */
+		private Duration maxBackoff = Duration.ofSeconds(30);
+
+		/**
+		 * Changes to a ConfigClient that trigger a reconcile. Other updates (e.g. to the
+		 * status or managed fields) are ignored.
+		 */
+		private List<Change> changes = new ArrayList<>(EnumSet.allOf(Change.class));
+
+		/**
+		 * Annotations whose names start with one of these are not compared.
+		 */
+		private List<String> ignoredAnnotationPrefixes = new ArrayList<>(List.of("kubectl.kubernetes.io/"));
+
+		public boolean isBookmarks() {
+			return bookmarks;
+		}
+
+		public void setBookmarks(boolean bookmarks) {
+			this.bookmarks = bookmarks;
+		}
+
+		public Duration getInitialBackoff() {
+			return initialBackoff;
+		}
+
+		public void setInitialBackoff(Duration initialBackoff) {
+			this.initialBackoff = initialBackoff;
+		}
+
+		public Duration getMaxBackoff() {
+			return maxBackoff;
+		}
+
+		public void setMaxBackoff(Duration maxBackoff) {
+			this.maxBackoff = maxBackoff;
+		}
+
+		public List<Change> getChanges() {
+			return changes;
+		}
+
+		public void setChanges(List<Change> changes) {
+			this.changes = changes;
+		}
+
+		public List<String> getIgnoredAnnotationPrefixes() {
+			return ignoredAnnotationPrefixes;
+		}
+
+		public void setIgnoredAnnotationPrefixes(List<String> ignoredAnnotationPrefixes) {
+			this.ignoredAnnotationPrefixes = ignoredAnnotationPrefixes;
+		}
+
+	}
+
+	public static class Api {
+
+		/**
+		 * Starting limit on concurrent writes (create, update, delete) to the API server.
+		 */
+		private int writeLimit = 10;
+
+		/**
+		 * The write limit never drops below this.
+		 */
+		private int minWriteLimit = 1;
+
+		/**
+		 * The write limit never grows beyond this.
+		 */
+		private int maxWriteLimit = 100;
+
+		/**
+		 * Writes slower than this lower the write limit.
+		 */
+		private Duration writeLatencyThreshold = Duration.ofSeconds(2);
+
+		/**
+		 * Maximum number of idle connections kept open.
+		 */
+		private int maxIdleConnections = 10;
+
+		/**
+		 * How long an idle connection is kept open.
+		 */
+		private Duration keepAlive = Duration.ofMinutes(5);
+
+		/**
+		 * Use HTTP/2 when the API server supports it, multiplexing requests over fewer
+		 * connections.
+		 */
+		private boolean http2 = true;
+
+		/**
+		 * Interval between HTTP/2 pings that keep connections alive. Zero switches them
+		 * off.
+		 */
+		private Duration pingInterval = Duration.ZERO;
+
+		/**
+		 * Connect timeout for API server requests.
+		 */
+		private Duration connectTimeout = Duration.ofSeconds(10);
+
+		/**
+		 * Write timeout for API server requests.
+		 */
+		private Duration writeTimeout = Duration.ofSeconds(10);
+
+		/**
+		 * Read timeout for API server requests. Zero (no timeout) is needed for watches.
+		 */
+		private Duration readTimeout = Duration.ZERO;
+
+		/**
+		 * Use protobuf instead of JSON for ConfigMap requests.
+		 */
+		private boolean protobuf;
+
+		public int getWriteLimit() {
+			return writeLimit;
+		}
+
+		public void setWriteLimit(int writeLimit) {
+			this.writeLimit = writeLimit;
+		}
+
+		public int getMinWriteLimit() {
+			return minWriteLimit;
+		}
+
+		public void setMinWriteLimit(int minWriteLimit) {
+			this.minWriteLimit = minWriteLimit;
+		}
+
+		public int getMaxWriteLimit() {
+			return maxWriteLimit;
+		}
+
+		public void setMaxWriteLimit(int maxWriteLimit) {
+			this.maxWriteLimit = maxWriteLimit;
+		}
+
+		public Duration getWriteLatencyThreshold() {
+			return writeLatencyThreshold;
+		}
+
+		public void setWriteLatencyThreshold(Duration writeLatencyThreshold) {
+			this.writeLatencyThreshold = writeLatencyThreshold;
+		}
+
+		public int getMaxIdleConnections() {
+			return maxIdleConnections;
+		}
+
+		public void setMaxIdleConnections(int maxIdleConnections) {
+			this.maxIdleConnections = maxIdleConnections;
+		}
+
+		public Duration getKeepAlive() {
+			return keepAlive;
+		}
+
+		public void setKeepAlive(Duration keepAlive) {
+			this.keepAlive = keepAlive;
+		}
+
+		public boolean isHttp2() {
+			return http2;
+		}
+
+		public void setHttp2(boolean http2) {
+			this.http2 = http2;
+		}
+
+		public Duration getPingInterval() {
+			return pingInterval;
+		}
+
+		public void setPingInterval(Duration pingInterval) {
+			this.pingInterval = pingInterval;
+		}
+
+		public Duration getConnectTimeout() {
+			return connectTimeout;
+		}
+
+		public void setConnectTimeout(Duration connectTimeout) {
+			this.connectTimeout = connectTimeout;
+		}
+
+		public Duration getWriteTimeout() {
+			return writeTimeout;
+		}
+
+		public void setWriteTimeout(Duration writeTimeout) {
+			this.writeTimeout = writeTimeout;
+		}
+
+		public Duration getReadTimeout() {
+			return readTimeout;
+		}
+
+		public void setReadTimeout(Duration readTimeout) {
+			this.readTimeout = readTimeout;
+		}
+
+		public boolean isProtobuf() {
+			return protobuf;
+		}
+
+		public void setProtobuf(boolean protobuf) {
+			this.protobuf = protobuf;
+		}
+
+	}
+
+	public static class Queue {
+
+		/**
+		 * Serve namespaces in turn (deficit round-robin) instead of strictly first come
+		 * first served, so one busy namespace cannot starve the others.
+		 */
+		private boolean fair;
+
+		/**
+		 * Relative share of the workers per namespace, when queuing fairly. Namespaces not
+		 * listed have weight 1.
+		 */
+		private Map<String, Integer> weights = new HashMap<>();
+
+		/**
+		 * Maximum number of reconciles in flight per namespace, when queuing fairly. Zero
+		 * means no limit.
+		 */
+		private int namespaceConcurrency;
+
+		/**
+		 * Per-namespace exceptions to the namespace concurrency limit.
+		 */
+		private Map<String, Integer> namespaceConcurrencyOverrides = new HashMap<>();
+
+		public boolean isFair() {
+			return fair;
+		}
+
+		public void setFair(boolean fair) {
+			this.fair = fair;
+		}
+
+		public Map<String, Integer> getWeights() {
+			return weights;
+		}
+
+		public void setWeights(Map<String, Integer> weights) {
+			this.weights = weights;
+		}
+
+		public int getNamespaceConcurrency() {
+			return namespaceConcurrency;
+		}
+
+		public void setNamespaceConcurrency(int namespaceConcurrency) {
+			this.namespaceConcurrency = namespaceConcurrency;
+		}
+
+		public Map<String, Integer> getNamespaceConcurrencyOverrides() {
+			return namespaceConcurrencyOverrides;
+		}
+
+		public void setNamespaceConcurrencyOverrides(Map<String, Integer> namespaceConcurrencyOverrides) {
+			this.namespaceConcurrencyOverrides = namespaceConcurrencyOverrides;
+		}
+
+	}
+
+	public static class Recording {
+
+		/**
+		 * Keep a flight recording with the low overhead default settings running all the
+		 * time, so there is always recent data to download from the flightrecorder
+		 * endpoint.
+		 */
+		private boolean continuous;
+
+		/**
+		 * How much history each recording keeps, the continuous one and those started
+		 * from the flightrecorder endpoint.
+		 */
+		private Duration maxAge = Duration.ofHours(1);
+
+		/**
+		 * Maximum size of each recording on disk.
+		 */
+		private DataSize maxSize = DataSize.ofMegabytes(100);
+
+		public boolean isContinuous() {
+			return continuous;
+		}
+
+		public void setContinuous(boolean continuous) {
+			this.continuous = continuous;
+		}
+
+		public Duration getMaxAge() {
+			return maxAge;
+		}
+
+		public void setMaxAge(Duration maxAge) {
+			this.maxAge = maxAge;
+		}
+
+		public DataSize getMaxSize() {
+			return maxSize;
+		}
+
+		public void setMaxSize(DataSize maxSize) {
+			this.maxSize = maxSize;
+		}
+
+	}
+
+}
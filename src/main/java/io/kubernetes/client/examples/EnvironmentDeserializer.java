@@ -0,0 +1,123 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+/**
+ * Streaming deserializer for config server responses. Only the property sources are
+ * read, straight into their maps, and everything else (name, profiles, label, version)
+ * is skipped, so no reflection is needed and nothing else is kept. If the
+ * {@link #MAX_PROPERTIES} attribute is set, reading stops with an
+ * {@link EnvironmentTooLargeException} as soon as there are more properties than that.
+ *
+ */
+class EnvironmentDeserializer extends StdDeserializer<Environment> {
+
+	static final String PROPERTY_SOURCES = "propertySources";
+
+	static final String MAX_PROPERTIES = EnvironmentDeserializer.class.getName() + ".maxProperties";
+
+	EnvironmentDeserializer() {
+		super(Environment.class);
+	}
+
+	@Override
+	public Environment deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+		if (parser.currentToken() != JsonToken.START_OBJECT) {
+			return (Environment) context.handleUnexpectedToken(Environment.class, parser);
+		}
+		Object max = context.getAttribute(MAX_PROPERTIES);
+		Counter counter = new Counter(max instanceof Integer && (Integer) max > 0 ? (Integer) max : Integer.MAX_VALUE);
+		List<PropertySource> sources = new ArrayList<>();
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			if (parser.nextToken() == JsonToken.START_ARRAY && PROPERTY_SOURCES.equals(field)) {
+				while (parser.nextToken() != JsonToken.END_ARRAY) {
+					if (parser.currentToken() == JsonToken.START_OBJECT) {
+						sources.add(propertySource(parser, counter));
+					}
+					else {
+						parser.skipChildren();
+					}
+				}
+			}
+			else {
+				parser.skipChildren();
+			}
+		}
+		Environment environment = new Environment();
+		environment.setPropertySources(sources.toArray(new PropertySource[0]));
+		return environment;
+	}
+
+	private static PropertySource propertySource(JsonParser parser, Counter counter) throws IOException {
+		PropertySource source = new PropertySource();
+		Map<String, String> values = new LinkedHashMap<>();
+		while (parser.nextToken() == JsonToken.FIELD_NAME) {
+			String field = parser.getCurrentName();
+			JsonToken token = parser.nextToken();
+			if ("name".equals(field)) {
+				source.setName(parser.getValueAsString());
+			}
+			else if ("source".equals(field) && token == JsonToken.START_OBJECT) {
+				while (parser.nextToken() == JsonToken.FIELD_NAME) {
+					String key = parser.getCurrentName();
+					if (parser.nextToken().isScalarValue()) {
+						counter.increment();
+						values.put(key, parser.getValueAsString());
+					}
+					else {
+						parser.skipChildren();
+					}
+				}
+			}
+			else {
+				parser.skipChildren();
+			}
+		}
+		source.setSource(values);
+		return source;
+	}
+
+	private static class Counter {
+
+		private final int max;
+
+		private int count;
+
+		Counter(int max) {
+			this.max = max;
+		}
+
+		void increment() {
+			if (++count > max) {
+				throw new EnvironmentTooLargeException("More than " + max + " properties");
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Fetches environments from config servers, batching requests for the same URL. The
+ * first reconcile for a URL does the fetch and builds the data. Every other reconcile
+ * for that URL, while the fetch is in flight or up to a short window after it, gets
+ * the same {@link EnvironmentSnapshot}. When a fetch shows that the data behind a URL
+ * changed, the change listener is called so that the other ConfigClients using it can
+ * be requeued and pick up the shared result.
+ * <p>
+ * Responses are parsed as they are streamed, and a response that is over the
+ * {@link #setLimits(long, int) limits} is abandoned with an
+ * {@link EnvironmentTooLargeException} as soon as that is clear, so an oversized
+ * environment is never held in memory.
+ *
+ */
+public class EnvironmentFetcher {
+
+	private static Log log = LogFactory.getLog(EnvironmentFetcher.class);
+
+	private final Map<String, Batch> batches = new ConcurrentHashMap<>();
+
+	private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+
+	private final RestTemplate rest;
+
+	private final ObjectReader reader;
+
+	private final ConfigServerCircuitBreakers breakers;
+
+	private final long window;
+
+	private long maxBytes;
+
+	private int maxProperties;
+
+	private Consumer<String> listener = url -> {
+	};
+
+	/**
+	 * @param mapper used to parse responses, so it needs the {@link EnvironmentDeserializer}
+	 */
+	public EnvironmentFetcher(RestTemplate rest, ObjectMapper mapper, ConfigServerCircuitBreakers breakers,
+			Duration window) {
+		this.rest = rest;
+		this.reader = mapper.readerFor(Environment.class);
+		this.breakers = breakers;
+		this.window = window.toNanos();
+	}
+
+	/**
+	 * @param listener called with a URL whose data has changed since it was last fetched.
+	 * URLs that only differ in spelling (see {@link ConfigServerUrls#normalize(String)})
+	 * share their results.
+	 */
+	public void setChangeListener(Consumer<String> listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * @param maxBytes the maximum size of a response body, or zero for no limit
+	 * @param maxProperties the maximum number of properties in a response (over all its
+	 * property sources), or zero for no limit
+	 */
+	public void setLimits(long maxBytes, int maxProperties) {
+		this.maxBytes = maxBytes;
+		this.maxProperties = maxProperties;
+	}
+
+	public EnvironmentSnapshot fetch(String url) {
+		FetchEvent event = new FetchEvent();
+		event.begin();
+		try {
+			EnvironmentSnapshot snapshot = fetch(url, event);
+			event.properties = snapshot.getData().size();
+			event.outcome = "success";
+			return snapshot;
+		}
+		catch (RuntimeException e) {
+			event.outcome = e.getClass().getSimpleName();
+			throw e;
+		}
+		finally {
+			event.end();
+			if (event.shouldCommit()) {
+				event.url = url;
+				event.commit();
+			}
+		}
+	}
+
+	private EnvironmentSnapshot fetch(String url, FetchEvent event) {
+		long now = System.nanoTime();
+		Batch[] created = new Batch[1];
+		Batch batch = batches.compute(ConfigServerUrls.normalize(url),
+				(key, existing) -> existing != null && existing.isFresh(now) ? existing : (created[0] = new Batch()));
+		event.shared = batch != created[0];
+		if (batch == created[0]) {
+			try {
+				batch.complete(load(url, event));
+			}
+			catch (Throwable e) {
+				// Even an Error has to complete the batch, or every caller sharing it waits forever
+				batches.remove(ConfigServerUrls.normalize(url), batch);
+				batch.future.completeExceptionally(e);
+				throw e;
+			}
+		}
+		try {
+			return batch.future.join();
+		}
+		catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Forget any shared result for this URL, so the next reconcile fetches it again. A
+	 * fetch that is already in flight might have started before the change, so it is
+	 * not shared with later callers either.
+	 */
+	public void evict(String url) {
+		batches.remove(ConfigServerUrls.normalize(url));
+	}
+
+	/**
+	 * Forget everything about a URL that is no longer used, so that the shared results
+	 * and fingerprints only ever cover the URLs in the cache.
+	 */
+	public void forget(String url) {
+		String key = ConfigServerUrls.normalize(url);
+		batches.remove(key);
+		fingerprints.remove(key);
+	}
+
+	/**
+	 * @return the fingerprint of the last environment fetched for each (normalised) URL
+	 */
+	public Map<String, String> getFingerprints() {
+		return new HashMap<>(fingerprints);
+	}
+
+	/**
+	 * Seed the fingerprints, e.g. from before a restart, so that the first fetch of an
+	 * unchanged environment does not count as a change.
+	 */
+	public void restoreFingerprints(Map<String, String> saved) {
+		saved.forEach(fingerprints::putIfAbsent);
+	}
+
+	@Nullable
+	public Duration getMaxAge(String url) {
+		Batch batch = batches.get(ConfigServerUrls.normalize(url));
+		if (batch == null || !batch.future.isDone() || batch.future.isCompletedExceptionally()) {
+			return null;
+		}
+		return batch.future.join().getMaxAge();
+	}
+
+	private EnvironmentSnapshot load(String url, FetchEvent event) {
+		ResponseEntity<Environment> response = breakers.execute(url, () -> rest.execute(url, HttpMethod.GET,
+				request -> request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON)), this::read));
+		event.bytes = response.getHeaders().getContentLength();
+		Environment environment = response.getBody();
+		if (environment == null) {
+			environment = new Environment();
+		}
+		EnvironmentSnapshot snapshot = new EnvironmentSnapshot(environment.toMap(),
+				maxAge(response.getHeaders().getCacheControl()));
+		String previous = fingerprints.put(ConfigServerUrls.normalize(url), snapshot.getFingerprint());
+		if (previous != null && !previous.equals(snapshot.getFingerprint())) {
+			log.debug("Environment changed: " + url);
+			listener.accept(url);
+		}
+		return snapshot;
+	}
+
+	private ResponseEntity<Environment> read(ClientHttpResponse response) throws IOException {
+		long length = response.getHeaders().getContentLength();
+		if (maxBytes > 0 && length > maxBytes) {
+			throw new EnvironmentTooLargeException("Response of " + length + " bytes is over the limit of "
+					+ maxBytes);
+		}
+		InputStream body = maxBytes > 0 ? new LimitedInputStream(response.getBody(), maxBytes) : response.getBody();
+		Environment environment = reader.withAttribute(EnvironmentDeserializer.MAX_PROPERTIES, maxProperties)
+				.readValue(body);
+		return new ResponseEntity<>(environment, response.getHeaders(), response.getRawStatusCode());
+	}
+
+	private static Duration maxAge(@Nullable String cacheControl) {
+		if (cacheControl != null) {
+			for (String directive : cacheControl.split(",")) {
+				String[] pair = directive.trim().split("=", 2);
+				if (pair.length == 2 && "max-age".equalsIgnoreCase(pair[0].trim())) {
+					try {
+						Duration maxAge = Duration.ofSeconds(Long.parseLong(pair[1].trim()));
+						return maxAge.isZero() ? null : maxAge;
+					}
+					catch (NumberFormatException e) {
+						return null;
+					}
+				}
+			}
+		}
+		return null;
+	}
+
+	private class Batch {
+
+		private final CompletableFuture<EnvironmentSnapshot> future = new CompletableFuture<>();
+
+		private volatile long completed;
+
+		void complete(EnvironmentSnapshot snapshot) {
+			completed = System.nanoTime();
+			future.complete(snapshot);
+		}
+
+		boolean isFresh(long now) {
+			if (!future.isDone()) {
+				return true;
+			}
+			return !future.isCompletedExceptionally() && now - completed < window;
+		}
+
+	}
+
+	/**
+	 * Fails as soon as more than the limit has been read, for responses without a
+	 * Content-Length (or with a wrong one).
+	 */
+	private static class LimitedInputStream extends FilterInputStream {
+
+		private final long limit;
+
+		private long count;
+
+		LimitedInputStream(InputStream in, long limit) {
+			super(in);
+			this.limit = limit;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int result = super.read();
+			if (result >= 0) {
+				count(1);
+			}
+			return result;
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) throws IOException {
+			int result = super.read(buffer, offset, length);
+			if (result > 0) {
+				count(result);
+			}
+			return result;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long result = super.skip(n);
+			count(result);
+			return result;
+		}
+
+		private void count(long bytes) {
+			count += bytes;
+			if (count > limit) {
+				throw new EnvironmentTooLargeException("Response is over the limit of " + limit + " bytes");
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.annotation.Nullable;
+
+/**
+ * The flattened data from one config server response, shared (read only) by every
+ * ConfigClient that points at the same URL.
+ *
+ */
+public class EnvironmentSnapshot {
+
+	private final Map<String, String> data;
+
+	private final String fingerprint;
+
+	private final Duration maxAge;
+
+	public EnvironmentSnapshot(Map<String, String> data, @Nullable Duration maxAge) {
+		this.data = Collections.unmodifiableMap(new TreeMap<>(data));
+		this.fingerprint = fingerprint(this.data);
+		this.maxAge = maxAge;
+	}
+
+	public Map<String, String> getData() {
+		return data;
+	}
+
+	/**
+	 * @return a hash of the data, stable across restarts
+	 */
+	public String getFingerprint() {
+		return fingerprint;
+	}
+
+	/**
+	 * @return the max-age from the Cache-Control header, if there was one
+	 */
+	@Nullable
+	public Duration getMaxAge() {
+		return maxAge;
+	}
+
+	static String fingerprint(Map<String, String> sorted) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		for (Map.Entry<String, String> entry : sorted.entrySet()) {
+			digest.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+			digest.update(String.valueOf(entry.getValue()).getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+		}
+		StringBuilder hex = new StringBuilder();
+		byte[] bytes = digest.digest();
+		for (int i = 0; i < 16; i++) {
+			hex.append(String.format("%02x", bytes[i]));
+		}
+		return hex.toString();
+	}
+
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples;
+
+import org.springframework.web.client.RestClientException;
+
+/**
+ * Thrown when a config server response is over the configured size or number of
+ * properties. The rest of the response is never read.
+ *
+ */
+public class EnvironmentTooLargeException extends RestClientException {
+
+	public EnvironmentTooLargeException(String message) {
+		super(message);
+	}
+
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for fetching an environment from a config server, or waiting
+ * for a fetch of the same URL by another reconcile.
+ *
+ */
+@Name("io.kubernetes.client.examples.ConfigServerFetch")
+@Label("Config Server Fetch")
+@Category({ "Kubernetes", "Controller" })
+@StackTrace(false)
+class FetchEvent extends Event {
+
+	@Label("URL")
+	String url;
+
+	@Label("Shared")
+	@Description("The result of another reconcile's fetch was reused")
+	boolean shared;
+
+	@Label("Response Size")
+	@DataAmount
+	long bytes = -1;
+
+	@Label("Properties")
+	int properties;
+
+	@Label("Outcome")
+	@Description("success, or the type of the exception thrown")
+	String outcome;
+
+}
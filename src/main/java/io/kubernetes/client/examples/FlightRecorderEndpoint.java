@@ -0,0 +1,239 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples;
+
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.util.unit.DataSize;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * Actuator endpoint for JDK Flight Recorder recordings, so that the controller's own
+ * events (reconciles, config server fetches and API calls) can be captured alongside
+ * GC, lock and I/O events without shell access to the pod:
+ * <ul>
+ * <li><code>GET</code> lists the recordings
+ * <li><code>POST</code> starts one, with an optional <code>name</code>,
+ * <code>duration</code> and <code>settings</code> (<code>default</code>, the
+ * default, or <code>profile</code>)
+ * <li><code>POST /{id}</code> stops it
+ * <li><code>GET /{id}</code> downloads it (also while it is running)
+ * <li><code>DELETE /{id}</code> discards it
+ * </ul>
+ * Every recording keeps at most the configured age and size of data on disk, so one
+ * that is never stopped cannot fill the disk.
+ *
+ */
+@WebEndpoint(id = "flightrecorder")
+public class FlightRecorderEndpoint {
+
+	static final String CONTINUOUS = "controller";
+
+	private static final String DEFAULT_SETTINGS = "default";
+
+	private final Duration maxAge;
+
+	private final DataSize maxSize;
+
+	/**
+	 * @param maxAge how much history each recording keeps
+	 * @param maxSize the most each recording keeps on disk
+	 */
+	public FlightRecorderEndpoint(Duration maxAge, DataSize maxSize) {
+		this.maxAge = maxAge;
+		this.maxSize = maxSize;
+	}
+
+	/**
+	 * Start a recording with the low overhead <code>default</code> settings that keeps
+	 * the most recent data, for always-on use.
+	 */
+	public void startContinuous() throws IOException, ParseException {
+		Recording recording = new Recording(Configuration.getConfiguration(DEFAULT_SETTINGS));
+		recording.setName(CONTINUOUS);
+		start(recording);
+	}
+
+	@ReadOperation
+	public List<Map<String, Object>> recordings() {
+		List<Map<String, Object>> result = new ArrayList<>();
+		for (Recording recording : FlightRecorder.getFlightRecorder().getRecordings()) {
+			result.add(describe(recording));
+		}
+		return result;
+	}
+
+	@WriteOperation
+	public WebEndpointResponse<Map<String, Object>> start(@Nullable String name, @Nullable Duration duration,
+			@Nullable String settings) {
+		Configuration configuration;
+		try {
+			configuration = Configuration.getConfiguration(settings == null ? DEFAULT_SETTINGS : settings);
+		}
+		catch (IOException | ParseException e) {
+			return new WebEndpointResponse<>(Map.of("error", "Unknown settings " + settings),
+					WebEndpointResponse.STATUS_BAD_REQUEST);
+		}
+		Recording recording = new Recording(configuration);
+		if (name != null) {
+			recording.setName(name);
+		}
+		if (duration != null) {
+			recording.setDuration(duration);
+		}
+		start(recording);
+		return new WebEndpointResponse<>(describe(recording));
+	}
+
+	private void start(Recording recording) {
+		recording.setToDisk(true);
+		recording.setMaxAge(maxAge);
+		recording.setMaxSize(maxSize.toBytes());
+		recording.start();
+	}
+
+	@WriteOperation
+	public WebEndpointResponse<Map<String, Object>> stop(@Selector long id) {
+		Recording recording = find(id);
+		if (recording == null) {
+			return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+		}
+		try {
+			recording.stop();
+		}
+		catch (IllegalStateException e) {
+			// already stopped
+		}
+		return new WebEndpointResponse<>(describe(recording));
+	}
+
+	@ReadOperation(produces = "application/octet-stream")
+	public WebEndpointResponse<Resource> download(@Selector long id) throws IOException {
+		Recording recording = find(id);
+		if (recording == null) {
+			return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+		}
+		if (recording.getState() == RecordingState.STOPPED) {
+			// Stream the recording's own chunks instead of copying them
+			InputStream stream = recording.getStream(null, null);
+			if (stream == null) {
+				return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NO_CONTENT);
+			}
+			return new WebEndpointResponse<>(new InputStreamResource(stream));
+		}
+		// A running recording has to be dumped to include its current chunk
+		Path file = Files.createTempFile("recording-" + id + "-", ".jfr");
+		try {
+			recording.dump(file);
+		}
+		catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(file);
+			throw e;
+		}
+		return new WebEndpointResponse<>(new TemporaryFileResource(file.toFile()));
+	}
+
+	@DeleteOperation
+	public WebEndpointResponse<Void> close(@Selector long id) {
+		Recording recording = find(id);
+		if (recording == null) {
+			return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+		}
+		recording.close();
+		return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NO_CONTENT);
+	}
+
+	@Nullable
+	private static Recording find(long id) {
+		for (Recording recording : FlightRecorder.getFlightRecorder().getRecordings()) {
+			if (recording.getId() == id) {
+				return recording;
+			}
+		}
+		return null;
+	}
+
+	private static Map<String, Object> describe(Recording recording) {
+		Map<String, Object> result = new LinkedHashMap<>();
+		result.put("id", recording.getId());
+		result.put("name", recording.getName());
+		result.put("state", recording.getState());
+		result.put("startTime", recording.getStartTime());
+		result.put("duration", recording.getDuration());
+		result.put("size", recording.getSize());
+		return result;
+	}
+
+	/**
+	 * The dumped recording, deleted once it has been sent.
+	 */
+	private static class TemporaryFileResource extends FileSystemResource {
+
+		TemporaryFileResource(File file) {
+			super(file);
+		}
+
+		@Override
+		public InputStream getInputStream() throws IOException {
+			return new FilterInputStream(super.getInputStream()) {
+
+				@Override
+				public void close() throws IOException {
+					try {
+						super.close();
+					}
+					finally {
+						Files.deleteIfExists(getFile().toPath());
+					}
+				}
+
+			};
+		}
+
+		@Override
+		public boolean isFile() {
+			// Stops the file from being sent directly, so the stream (and the delete) is used
+			return false;
+		}
+
+	}
+
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import io.kubernetes.client.examples.models.V1ConfigClient;
+import io.kubernetes.client.examples.models.V1ConfigClientList;
+import io.kubernetes.client.informer.SharedIndexInformer;
+import io.kubernetes.client.openapi.JSON;
+import io.kubernetes.client.openapi.models.V1ListMeta;
+
+/**
+ * A copy of the ConfigClient cache (with its resource version) and of the environment
+ * fingerprints, saved to a local file every so often and on shutdown. After a restart
+ * the informer starts from the file and only watches for what changed since, the
+ * fingerprints stop unchanged environments counting as changes. ConfigClients that were
+ * complete when the snapshot was saved, with the same resource version and a saved
+ * fingerprint for their URL, are not fetched again straight away: they wait for their
+ * refresh interval, or for the resync if they have none. The file is replaced atomically, so it is either the old or
+ * the new snapshot, never half of one.
+ *
+ */
+public class InformerSnapshot {
+
+	private static Log log = LogFactory.getLog(InformerSnapshot.class);
+
+	private final Path file;
+
+	private final JSON json;
+
+	// Read from the informer threads by isChanged() without the lock
+	private final Map<String, String> versions = new ConcurrentHashMap<>();
+
+	private volatile Map<String, String> fingerprints = new HashMap<>();
+
+	private volatile SharedIndexInformer<V1ConfigClient> informer;
+
+	private EnvironmentFetcher fetcher;
+
+	private ScheduledExecutorService scheduler;
+
+	public InformerSnapshot(Path file, JSON json) {
+		this.file = file;
+		this.json = json;
+	}
+
+	/**
+	 * @return the saved ConfigClients, or null if there is no usable snapshot
+	 */
+	@Nullable
+	public synchronized V1ConfigClientList load() {
+		if (!Files.exists(file)) {
+			return null;
+		}
+		try {
+			Contents contents = json.deserialize(Files.readString(file, StandardCharsets.UTF_8), Contents.class);
+			if (contents == null || contents.clients == null) {
+				return null;
+			}
+			for (V1ConfigClient client : contents.clients.getItems()) {
+				String version = client.getMetadata().getResourceVersion();
+				if (version != null) {
+					versions.put(key(client), version);
+				}
+			}
+			if (contents.fingerprints != null) {
+				fingerprints = contents.fingerprints;
+			}
+			return contents.clients;
+		}
+		catch (IOException | RuntimeException e) {
+			log.warn("Ignoring unreadable snapshot " + file + ": " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Hand the loaded fingerprints of the URLs still in use to the fetcher and start
+	 * saving.
+	 */
+	public synchronized void start(SharedIndexInformer<V1ConfigClient> informer, EnvironmentFetcher fetcher,
+			Duration interval) {
+		this.informer = informer;
+		this.fetcher = fetcher;
+		Set<String> urls = new HashSet<>();
+		for (V1ConfigClient client : informer.getIndexer().list()) {
+			if (client.getSpec() != null && client.getSpec().getUrl() != null) {
+				urls.add(ConfigServerUrls.normalize(client.getSpec().getUrl()));
+			}
+		}
+		Map<String, String> used = new HashMap<>(fingerprints);
+		used.keySet().retainAll(urls);
+		fingerprints = used;
+		fetcher.restoreFingerprints(used);
+		if (scheduler == null && !interval.isZero()) {
+			scheduler = Executors.newSingleThreadScheduledExecutor();
+			scheduler.scheduleWithFixedDelay(this::save, interval.toMillis(), interval.toMillis(),
+					TimeUnit.MILLISECONDS);
+		}
+	}
+
+	public synchronized void stop() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
+		save();
+	}
+
+	/**
+	 * @param key the cache key (namespace/name) of a ConfigClient
+	 * @return false if the ConfigClient has the same resource version as when the
+	 * snapshot was saved, was complete then, and the snapshot has the fingerprint of its
+	 * environment
+	 */
+	public boolean isChanged(String key) {
+		SharedIndexInformer<V1ConfigClient> informer = this.informer;
+		String saved = versions.get(key);
+		if (saved == null || informer == null) {
+			return true;
+		}
+		V1ConfigClient client = informer.getIndexer().getByKey(key);
+		if (client == null || !saved.equals(client.getMetadata().getResourceVersion())) {
+			return true;
+		}
+		if (client.getStatus() == null || !Boolean.TRUE.equals(client.getStatus().getComplete())) {
+			return true;
+		}
+		return client.getSpec() == null || client.getSpec().getUrl() == null
+				|| !fingerprints.containsKey(ConfigServerUrls.normalize(client.getSpec().getUrl()));
+	}
+
+	/**
+	 * @param key the cache key (namespace/name) of a ConfigClient
+	 * @return zero if the ConfigClient {@link #isChanged(String) changed} since the
+	 * snapshot, otherwise its refresh interval, or null to leave it to the resync
+	 */
+	@Nullable
+	public Duration revisitAfter(String key) {
+		if (isChanged(key)) {
+			return Duration.ZERO;
+		}
+		return ConfigMapReconciler.refreshInterval(informer.getIndexer().getByKey(key));
+	}
+
+	public synchronized void save() {
+		if (informer == null || !informer.hasSynced()) {
+			return;
+		}
+		try {
+			// Read the version before the items so the items are never older than it
+			String version = informer.lastSyncResourceVersion();
+			V1ConfigClientList clients = new V1ConfigClientList();
+			clients.setApiVersion("spring.io/v1");
+			clients.setKind("ConfigClientList");
+			clients.setMetadata(new V1ListMeta().resourceVersion(version));
+			clients.setItems(informer.getIndexer().list());
+			Contents contents = new Contents();
+			contents.clients = clients;
+			contents.fingerprints = fetcher.getFingerprints();
+			Path parent = file.toAbsolutePath().getParent();
+			Files.createDirectories(parent);
+			Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+			try {
+				Files.writeString(temp, json.serialize(contents), StandardCharsets.UTF_8);
+				Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			finally {
+				Files.deleteIfExists(temp);
+			}
+			log.debug("Saved snapshot of " + clients.getItems().size() + " ConfigClients at " + version);
+		}
+		catch (IOException | RuntimeException e) {
+			log.warn("Cannot save snapshot " + file + ": " + e.getMessage());
+		}
+	}
+
+	private static String key(V1ConfigClient client) {
+		return client.getMetadata().getNamespace() + "/" + client.getMetadata().getName();
+	}
+
+	static class Contents {
+
+		private V1ConfigClientList clients;
+
+		private Map<String, String> fingerprints;
+
+	}
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+import io.kubernetes.client.examples.controller.CacheSyncGate;
+
+/**
+ * Reports the informers as out of service until they have all synced and the controller
+ * has started, so the readiness probe only passes once reconciles see a full cache.
+ *
+ */
+public class InformersHealthIndicator implements HealthIndicator {
+
+	private final CacheSyncGate gate;
+
+	public InformersHealthIndicator(CacheSyncGate gate) {
+		this.gate = gate;
+	}
+
+	@Override
+	public Health health() {
+		Health.Builder builder = gate.hasSynced() && gate.getAsBoolean() ? Health.up() : Health.outOfService();
+		return builder.withDetails(gate.status()).build();
+	}
+
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import com.google.protobuf.Message;
+
+import io.kubernetes.client.ProtoClient;
+import io.kubernetes.client.ProtoClient.ObjectOrStatus;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.models.V1ConfigMap;
+import io.kubernetes.client.openapi.models.V1ConfigMapList;
+import io.kubernetes.client.openapi.models.V1DeleteOptions;
+import io.kubernetes.client.openapi.models.V1Status;
+import io.kubernetes.client.proto.V1;
+import io.kubernetes.client.util.generic.GenericKubernetesApi;
+import io.kubernetes.client.util.generic.KubernetesApiResponse;
+import io.kubernetes.client.util.generic.options.ListOptions;
+
+/**
+ * A ConfigMap API that talks protobuf (<code>application/vnd.kubernetes.protobuf</code>)
+ * to the API server for the calls the controller makes (list, get, create, update and
+ * delete), which is smaller on the wire and cheaper to decode than JSON for large data
+ * maps. Anything else falls back to JSON.
+ *
+ */
+class ProtobufConfigMapApi extends GenericKubernetesApi<V1ConfigMap, V1ConfigMapList> {
+
+	private static final String STATUS_FAILURE = "Failure";
+
+	private final ProtoClient client;
+
+	ProtobufConfigMapApi(ApiClient apiClient) {
+		super(V1ConfigMap.class, V1ConfigMapList.class, "", ConfigMapProtos.API_VERSION, "configmaps", apiClient);
+		this.client = new ProtoClient(apiClient);
+	}
+
+	@Override
+	public KubernetesApiResponse<V1ConfigMapList> list(ListOptions options) {
+		return call(() -> client.list(V1.ConfigMapList.newBuilder(), "/api/v1/configmaps" + query(options)),
+				ConfigMapProtos::fromProto);
+	}
+
+	@Override
+	public KubernetesApiResponse<V1ConfigMapList> list(String namespace, ListOptions options) {
+		return call(() -> client.list(V1.ConfigMapList.newBuilder(), path(namespace) + query(options)),
+				ConfigMapProtos::fromProto);
+	}
+
+	@Override
+	public KubernetesApiResponse<V1ConfigMap> get(String namespace, String name) {
+		return call(() -> client.get(V1.ConfigMap.newBuilder(), path(namespace, name)), ConfigMapProtos::fromProto);
+	}
+
+	@Override
+	public KubernetesApiResponse<V1ConfigMap> create(V1ConfigMap object) {
+		return call(
+				() -> client.create(ConfigMapProtos.toProto(object), path(object.getMetadata().getNamespace()),
+						ConfigMapProtos.API_VERSION, ConfigMapProtos.KIND),
+				ConfigMapProtos::fromProto);
+	}
+
+	@Override
+	public KubernetesApiResponse<V1ConfigMap> update(V1ConfigMap object) {
+		return call(() -> client.update(ConfigMapProtos.toProto(object),
+				path(object.getMetadata().getNamespace(), object.getMetadata().getName()),
+				ConfigMapProtos.API_VERSION, ConfigMapProtos.KIND), ConfigMapProtos::fromProto);
+	}
+
+	@Override
+	public KubernetesApiResponse<V1ConfigMap> delete(String namespace, String name) {
+		return call(() -> client.delete(V1.ConfigMap.newBuilder(), path(namespace, name)),
+				ConfigMapProtos::fromProto);
+	}
+
+	@Override
+	public KubernetesApiResponse<V1ConfigMap> delete(String namespace, String name, V1DeleteOptions options) {
+		if (options == null) {
+			return delete(namespace, name);
+		}
+		return call(() -> client.delete(V1.ConfigMap.newBuilder(), path(namespace, name),
+				ConfigMapProtos.toProto(options)), ConfigMapProtos::fromProto);
+	}
+
+	private static <P extends Message, T> KubernetesApiResponse<T> call(ProtoCall<P> call, Function<P, T> converter) {
+		try {
+			ObjectOrStatus<P> result = call.call();
+			if (result.object != null) {
+				return new KubernetesApiResponse<>(converter.apply(result.object));
+			}
+			V1Status status = ConfigMapProtos.fromProto(result.status);
+			return new KubernetesApiResponse<>(status, code(status));
+		}
+		catch (ApiException e) {
+			return failure(e);
+		}
+		catch (IOException e) {
+			// E.g. an error body that is not protobuf at all
+			return failure(new ApiException(e));
+		}
+	}
+
+	/**
+	 * A successful delete returns a Status with no code, so only a Failure without a code
+	 * is treated as an error.
+	 */
+	static int code(V1Status status) {
+		if (status.getCode() != null) {
+			return status.getCode();
+		}
+		return STATUS_FAILURE.equals(status.getStatus()) ? 500 : 200;
+	}
+
+	private static <T> KubernetesApiResponse<T> failure(ApiException e) {
+		V1Status status = new V1Status().status(STATUS_FAILURE).code(e.getCode()).message(e.getMessage());
+		return new KubernetesApiResponse<>(status, e.getCode());
+	}
+
+	private static String path(String namespace) {
+		return "/api/v1/namespaces/" + namespace + "/configmaps";
+	}
+
+	private static String path(String namespace, String name) {
+		return path(namespace) + "/" + name;
+	}
+
+	private static String query(ListOptions options) {
+		List<String> params = new ArrayList<>();
+		add(params, "labelSelector", options.getLabelSelector());
+		add(params, "fieldSelector", options.getFieldSelector());
+		add(params, "resourceVersion", options.getResourceVersion());
+		add(params, "continue", options.getContinue());
+		if (options.getLimit() != null && options.getLimit() > 0) {
+			add(params, "limit", String.valueOf(options.getLimit()));
+		}
+		return params.isEmpty() ? "" : "?" + String.join("&", params);
+	}
+
+	private static void add(List<String> params, String name, String value) {
+		if (value != null && !value.isEmpty()) {
+			params.add(name + "=" + URLEncoder.encode(value, StandardCharsets.UTF_8));
+		}
+	}
+
+	@FunctionalInterface
+	private interface ProtoCall<P extends Message> {
+
+		ObjectOrStatus<P> call() throws ApiException, IOException;
+
+	}
+
+}
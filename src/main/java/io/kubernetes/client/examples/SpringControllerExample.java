@@ -12,28 +12,53 @@ limitations under the License.
 */
 package io.kubernetes.client.examples;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.text.ParseException;
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.nativex.hint.TypeAccess;
 import org.springframework.nativex.hint.TypeHint;
-import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import io.kubernetes.client.examples.controller.AdaptiveConcurrencyLimiter;
+import io.kubernetes.client.examples.controller.ApiCallEventInterceptor;
+import io.kubernetes.client.examples.controller.CacheSyncGate;
+import io.kubernetes.client.examples.controller.ChangePredicates;
+import io.kubernetes.client.examples.controller.PrioritizedControllerWatch;
+import io.kubernetes.client.examples.controller.PriorityWorkQueue;
+import io.kubernetes.client.examples.controller.PriorityWorkQueue.Priority;
+import io.kubernetes.client.examples.controller.ResilientListerWatcher;
+import io.kubernetes.client.examples.controller.ResyncScheduler;
+import io.kubernetes.client.examples.controller.SnapshotListerWatcher;
+import io.kubernetes.client.examples.controller.TrackingReconciler;
+import io.kubernetes.client.examples.controller.WatchBookmarksInterceptor;
+import io.kubernetes.client.examples.models.ConfigClientTypeAdapterFactory;
 import io.kubernetes.client.examples.models.V1ConfigClient;
 import io.kubernetes.client.examples.models.V1ConfigClientList;
 import io.kubernetes.client.examples.models.V1ConfigClientStatus;
-import io.kubernetes.client.examples.reconciler.ChildProvider;
 import io.kubernetes.client.examples.reconciler.ChildReconciler;
+import io.kubernetes.client.examples.reconciler.ChildSweeper;
 import io.kubernetes.client.examples.reconciler.ParentReconciler;
 import io.kubernetes.client.extended.controller.Controller;
 import io.kubernetes.client.extended.controller.builder.ControllerBuilder;
@@ -42,10 +67,16 @@ import io.kubernetes.client.informer.SharedInformerFactory;
 import io.kubernetes.client.openapi.ApiClient;
 import io.kubernetes.client.openapi.models.V1ConfigMap;
 import io.kubernetes.client.openapi.models.V1ConfigMapList;
-import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.util.ClientBuilder;
 import io.kubernetes.client.util.generic.GenericKubernetesApi;
-
-@TypeHint(types = { Environment.class, PropertySource.class },
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.okhttp3.OkHttpConnectionPoolMetrics;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+@TypeHint(types = { ConfigChangeController.ConfigChange.class, InformerSnapshot.Contents.class },
 		access = { TypeAccess.DECLARED_FIELDS, TypeAccess.DECLARED_METHODS, TypeAccess.DECLARED_CONSTRUCTORS,
 				TypeAccess.DECLARED_CLASSES })
 @SpringBootApplication
@@ -56,34 +87,153 @@ public class SpringControllerExample {
 	}
 
 	@Configuration
+	@EnableConfigurationProperties(ControllerProperties.class)
 	public static class AppConfig {
 
 		private static Log log = LogFactory.getLog(AppConfig.class);
 
 		@Bean
-		public CommandLineRunner commandLineRunner(SharedInformerFactory sharedInformerFactory, Controller controller) {
+		public CommandLineRunner commandLineRunner(SharedInformerFactory sharedInformerFactory, Controller controller,
+				CacheSyncGate gate, PriorityWorkQueue queue, SharedIndexInformer<V1ConfigClient> nodeInformer,
+				EnvironmentFetcher fetcher, ObjectProvider<InformerSnapshot> snapshots, ResyncScheduler resyncScheduler,
+				ChildSweeper<?, ?, ?> childSweeper, ControllerProperties properties) {
 			return args -> Executors.newSingleThreadExecutor().execute(() -> {
 				System.out.println("starting informers..");
 				sharedInformerFactory.startAllRegisteredInformers();
+				try {
+					gate.await();
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				InformerSnapshot snapshot = snapshots.getIfAvailable();
+				if (snapshot != null) {
+					snapshot.start(nodeInformer, fetcher, properties.getSnapshot().getInterval());
+					gate.open(queue, nodeInformer, snapshot::revisitAfter);
+				}
+				else {
+					gate.open(queue, nodeInformer);
+				}
+				resyncScheduler.start();
+				childSweeper.start(properties.getChildren().getSweepInterval());
 
 				System.out.println("running controller..");
 				controller.run();
 			});
 		}
 
+		@Bean
+		public CacheSyncGate cacheSyncGate(Map<String, SharedIndexInformer<?>> informers) {
+			return new CacheSyncGate(informers);
+		}
+
+		@Bean
+		public InformersHealthIndicator informersHealthIndicator(CacheSyncGate gate) {
+			return new InformersHealthIndicator(gate);
+		}
+
+		@Bean
+		public PriorityWorkQueue configClientQueue(MeterRegistry registry, ControllerProperties properties) {
+			ControllerProperties.Queue config = properties.getQueue();
+			PriorityWorkQueue queue = new PriorityWorkQueue("configClientController", registry);
+			queue.setFairQueuing(config.isFair());
+			queue.setNamespaceWeights(config.getWeights());
+			queue.setNamespaceConcurrency(config.getNamespaceConcurrency(), config.getNamespaceConcurrencyOverrides());
+			return queue;
+		}
+
+		@Bean(destroyMethod = "stop")
+		public ResyncScheduler resyncScheduler(SharedIndexInformer<V1ConfigClient> nodeInformer,
+				PriorityWorkQueue queue, ControllerProperties properties) {
+			return new ResyncScheduler(nodeInformer, queue, properties.getResync().getPeriod(),
+					properties.getResync().getItemsPerSecond());
+		}
+
 		@Bean
 		public Controller nodePrintingController(SharedInformerFactory sharedInformerFactory,
-				ParentReconciler<?, ?> reconciler) {
+				TrackingReconciler reconciler, PriorityWorkQueue queue,
+				PrioritizedControllerWatch<V1ConfigClient> configClientWatch, ControllerProperties properties) {
 			var builder = ControllerBuilder //
 					.defaultBuilder(sharedInformerFactory)//
-					.watch((q) -> ControllerBuilder.controllerWatchBuilder(V1ConfigClient.class, q)
-							.withResyncPeriod(Duration.ofHours(1)).build()) //
-					.withWorkerCount(2);
+					.withWorkQueue(queue) //
+					.watch((q) -> configClientWatch) //
+					.withWorkerCount(properties.getWorkers());
 			return builder.withReconciler(reconciler).withName("configClientController").build();
 		}
 
 		@Bean
-		public GenericKubernetesApi<V1ConfigMap, V1ConfigMapList> configMapApi(ApiClient apiClient) {
+		public PrioritizedControllerWatch<V1ConfigClient> configClientWatch(PriorityWorkQueue queue,
+				CacheSyncGate gate, ControllerProperties properties) {
+			var watch = new PrioritizedControllerWatch<>(V1ConfigClient.class, queue, Duration.ZERO, gate);
+			watch.setUpdateFilter(ChangePredicates.anyOf(properties.getWatch().getChanges(),
+					properties.getWatch().getIgnoredAnnotationPrefixes()));
+			return watch;
+		}
+
+		@Bean
+		public TrackingReconciler trackingReconciler(ParentReconciler<?, ?> reconciler) {
+			return new TrackingReconciler(reconciler);
+		}
+
+		@Bean
+		public ControllerEndpoint controllerEndpoint(PriorityWorkQueue queue, TrackingReconciler reconciler,
+				PrioritizedControllerWatch<V1ConfigClient> configClientWatch,
+				Map<String, SharedIndexInformer<?>> informers) {
+			return new ControllerEndpoint(queue, reconciler, configClientWatch, informers);
+		}
+
+		@Bean
+		public FlightRecorderEndpoint flightRecorderEndpoint(ControllerProperties properties)
+				throws IOException, ParseException {
+			ControllerProperties.Recording recording = properties.getRecording();
+			FlightRecorderEndpoint endpoint = new FlightRecorderEndpoint(recording.getMaxAge(),
+					recording.getMaxSize());
+			if (recording.isContinuous()) {
+				endpoint.startContinuous();
+			}
+			return endpoint;
+		}
+
+		@Bean
+		public ApiClient apiClient(ControllerProperties properties, MeterRegistry registry) throws IOException {
+			ApiClient client = ClientBuilder.defaultClient();
+			var api = properties.getApi();
+			var limiter = new AdaptiveConcurrencyLimiter(api.getWriteLimit(), api.getMinWriteLimit(),
+					api.getMaxWriteLimit(), api.getWriteLatencyThreshold()).register("kubernetes", registry);
+			ConnectionPool pool = new ConnectionPool(api.getMaxIdleConnections(), api.getKeepAlive().toMillis(),
+					TimeUnit.MILLISECONDS);
+			new OkHttpConnectionPoolMetrics(pool, "okhttp.pool", Tags.of("client", "kubernetes")).bindTo(registry);
+			List<Protocol> protocols = api.isHttp2() ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1)
+					: List.of(Protocol.HTTP_1_1);
+			OkHttpClient.Builder http = client.getHttpClient().newBuilder() //
+					.connectionPool(pool) //
+					.protocols(protocols) //
+					.pingInterval(api.getPingInterval()) //
+					.connectTimeout(api.getConnectTimeout()) //
+					.writeTimeout(api.getWriteTimeout()) //
+					.readTimeout(api.getReadTimeout()) //
+					.addInterceptor(limiter) //
+					.addInterceptor(new ApiCallEventInterceptor());
+			if (properties.getWatch().isBookmarks()) {
+				http.addInterceptor(new WatchBookmarksInterceptor());
+			}
+			client.setHttpClient(http.build());
+			ConfigClientTypeAdapterFactory.register(client.getJSON());
+			return client;
+		}
+
+		@Bean
+		public Module environmentModule() {
+			return new SimpleModule().addDeserializer(Environment.class, new EnvironmentDeserializer());
+		}
+
+		@Bean
+		public GenericKubernetesApi<V1ConfigMap, V1ConfigMapList> configMapApi(ApiClient apiClient,
+				ControllerProperties properties) {
+			if (properties.getApi().isProtobuf()) {
+				return new ProtobufConfigMapApi(apiClient);
+			}
 			return new GenericKubernetesApi<>(V1ConfigMap.class, V1ConfigMapList.class, "", "v1", "configmaps",
 					apiClient);
 		}
@@ -94,75 +244,96 @@ public class SpringControllerExample {
 					"configclients", apiClient);
 		}
 
+		@Bean(destroyMethod = "stop")
+		@ConditionalOnProperty("controller.snapshot.file")
+		public InformerSnapshot informerSnapshot(ApiClient apiClient, ControllerProperties properties) {
+			return new InformerSnapshot(Paths.get(properties.getSnapshot().getFile()), apiClient.getJSON());
+		}
+
 		@Bean
 		public SharedIndexInformer<V1ConfigClient> nodeInformer(ApiClient apiClient,
 				SharedInformerFactory sharedInformerFactory,
-				GenericKubernetesApi<V1ConfigClient, V1ConfigClientList> configClientApi) {
-			return sharedInformerFactory.sharedIndexInformerFor(configClientApi, V1ConfigClient.class, 0);
+				GenericKubernetesApi<V1ConfigClient, V1ConfigClientList> configClientApi,
+				ObjectProvider<InformerSnapshot> snapshots, ControllerProperties properties, MeterRegistry registry) {
+			var watch = properties.getWatch();
+			InformerSnapshot snapshot = snapshots.getIfAvailable();
+			Supplier<V1ConfigClientList> saved = snapshot == null ? null : snapshot::load;
+			var listerWatcher = new ResilientListerWatcher<>(new SnapshotListerWatcher<>(configClientApi, saved),
+					"configclients", registry, watch.getInitialBackoff(), watch.getMaxBackoff());
+			return sharedInformerFactory.sharedIndexInformerFor(listerWatcher, V1ConfigClient.class, 0);
 		}
 
 		@Bean
-		public ParentReconciler<V1ConfigClient, V1ConfigClientList> configClientReconciler(
-				SharedIndexInformer<V1ConfigClient> parentInformer, ApiClient configClientApi,
-				GenericKubernetesApi<V1ConfigMap, V1ConfigMapList> configMapApi) {
-			if (log.isDebugEnabled()) {
-				configClientApi.setDebugging(true);
-			}
-			return new ParentReconciler<>(parentInformer, configClientApi,
-					new ChildReconciler<>(configMapApi, new ConfigMapReconciler()));
+		public ConfigClientIndex configClientIndex(SharedIndexInformer<V1ConfigClient> nodeInformer) {
+			return ConfigClientIndex.register(nodeInformer);
 		}
 
-	}
-
-	private static class ConfigMapReconciler implements ChildProvider<V1ConfigClient, V1ConfigMap> {
-
-		private static Log log = LogFactory.getLog(ConfigMapReconciler.class);
-
-		@Override
-		public void mergeBeforeUpdate(V1ConfigMap current, V1ConfigMap desired) {
-			current.setData(desired.getData());
+		@Bean
+		public ConfigClientsEndpoint configClientsEndpoint(ConfigClientIndex index) {
+			return new ConfigClientsEndpoint(index);
 		}
 
-		@Override
-		public boolean semanticEquals(V1ConfigMap actual, V1ConfigMap desired) {
-			return ChildProvider.mapEquals(desired.getData(), actual.getData());
+		@Bean
+		public ConfigServerCircuitBreakers configServerCircuitBreakers(ControllerProperties properties,
+				MeterRegistry registry) {
+			return new ConfigServerCircuitBreakers(properties.getConfigServer(), registry);
 		}
 
-		@Override
-		public V1ConfigMap desired(V1ConfigClient node) {
-			var config = new V1ConfigMap();
-			config.setApiVersion("v1");
-			config.setKind("ConfigMap");
-
-			var metadata = new V1ObjectMeta();
-			metadata.setName(node.getMetadata().getName());
-			metadata.setNamespace(node.getMetadata().getNamespace());
+		@Bean
+		public EnvironmentFetcher environmentFetcher(ControllerProperties properties,
+				RestTemplateBuilder restTemplateBuilder, ObjectMapper mapper, ConfigServerCircuitBreakers breakers,
+				ConfigClientIndex index, PriorityWorkQueue queue) {
+			RestTemplate rest = restTemplateBuilder //
+					.setConnectTimeout(properties.getConfigServer().getConnectTimeout()) //
+					.setReadTimeout(properties.getConfigServer().getReadTimeout()) //
+					.build();
+			var config = properties.getConfigServer();
+			var fetcher = new EnvironmentFetcher(rest, mapper, breakers, config.getBatchWindow());
+			fetcher.setLimits(config.getMaxResponseSize().toBytes(), config.getMaxProperties());
+			fetcher.setChangeListener(url -> {
+				for (V1ConfigClient client : index.byUrl(url)) {
+					queue.add(ConfigClientIndex.request(client), Priority.NORMAL);
+				}
+			});
+			index.onUnusedUrl(fetcher::forget);
+			return fetcher;
+		}
 
-			config.setMetadata(metadata);
+		@Bean(destroyMethod = "stop")
+		public ChildSweeper<V1ConfigClient, V1ConfigMap, V1ConfigMapList> childSweeper(
+				SharedIndexInformer<V1ConfigClient> parentInformer,
+				GenericKubernetesApi<V1ConfigMap, V1ConfigMapList> configMapApi, ControllerProperties properties) {
+			var children = properties.getChildren();
+			return new ChildSweeper<>(parentInformer, configMapApi, children.getManagedBy(), children.getPageSize(),
+					children.getDeleteConcurrency(), children.getSweepGracePeriod());
+		}
 
-			var environment = fetchEnvironment(node);
-			if (node.getStatus() == null) {
-				node.setStatus(new V1ConfigClientStatus());
-			}
-			if (environment == null) {
-				node.getStatus().setComplete(false);
-			}
-			else {
-				config.setData(environment.toMap());
-				node.getStatus().setComplete(true);
+		@Bean
+		public ParentReconciler<V1ConfigClient, V1ConfigClientList> configClientReconciler(
+				SharedIndexInformer<V1ConfigClient> parentInformer, ApiClient configClientApi,
+				GenericKubernetesApi<V1ConfigMap, V1ConfigMapList> configMapApi, EnvironmentFetcher fetcher,
+				ControllerProperties properties, ChildSweeper<V1ConfigClient, V1ConfigMap, V1ConfigMapList> sweeper) {
+			if (log.isDebugEnabled()) {
+				configClientApi.setDebugging(true);
 			}
-			return config;
+			var provider = new ConfigMapReconciler(fetcher, properties.getChildren().getMaxShardBytes());
+			provider.setRejectedRetry(properties.getConfigServer().getRejectedRetry());
+			var children = new ChildReconciler<>(configMapApi, provider, properties.getChildren().getManagedBy(),
+					properties.getChildren().getPageSize());
+			children.setSweeper(sweeper);
+			var reconciler = new ParentReconciler<V1ConfigClient, V1ConfigClientList>(parentInformer, configClientApi,
+					children);
+			reconciler.setStatusOverlay(AppConfig::overlay);
+			return reconciler;
 		}
 
-		private Environment fetchEnvironment(V1ConfigClient node) {
-			RestTemplate rest = new RestTemplate();
-			try {
-				return rest.getForObject(node.getSpec().getUrl(), Environment.class);
-			} //
-			catch (RestClientException e) {
-				log.error("oops!", e);
-				return null;
-			}
+		private static V1ConfigClient overlay(V1ConfigClient cached) {
+			V1ConfigClientStatus status = cached.getStatus() == null ? null
+					: new V1ConfigClientStatus().complete(cached.getStatus().getComplete())
+							.observedGeneration(cached.getStatus().getObservedGeneration())
+							.message(cached.getStatus().getMessage());
+			return new V1ConfigClient().apiVersion(cached.getApiVersion()).kind(cached.getKind())
+					.metadata(cached.getMetadata()).spec(cached.getSpec()).status(status);
 		}
 
 	}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples.controller;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Limits the number of concurrent writes (anything but GET, HEAD and OPTIONS) to the API
+ * server, adapting the limit AIMD style: a write that succeeds quickly while at least
+ * half the limit is in use raises it a little (by one per limit's worth of writes), a
+ * 429 halves it, and a write slower than the latency threshold, one that fails with a
+ * 5xx, or one that fails with an I/O error such as a timeout cuts it by a tenth. Writes
+ * well below the limit leave it alone, so a quiet spell does not raise it to the
+ * maximum. A 429 with a Retry-After header also holds back all new writes until then.
+ * Reads and watches are never limited.
+ *
+ */
+public class AdaptiveConcurrencyLimiter implements Interceptor {
+
+	private static Log log = LogFactory.getLog(AdaptiveConcurrencyLimiter.class);
+
+	private static final double LATENCY_DECREASE = 0.9;
+
+	private final int minLimit;
+
+	private final int maxLimit;
+
+	private final long latencyThreshold;
+
+	private double limit;
+
+	private int inFlight;
+
+	private long pausedUntil;
+
+	public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, Duration latencyThreshold) {
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.limit = initialLimit;
+		this.latencyThreshold = latencyThreshold.toNanos();
+		this.pausedUntil = System.nanoTime();
+	}
+
+	public AdaptiveConcurrencyLimiter register(String name, MeterRegistry registry) {
+		Gauge.builder("controller.api.writes.limit", this, AdaptiveConcurrencyLimiter::getLimit).tag("name", name)
+				.register(registry);
+		Gauge.builder("controller.api.writes.inflight", this, AdaptiveConcurrencyLimiter::getInFlight)
+				.tag("name", name).register(registry);
+		return this;
+	}
+
+	public synchronized int getLimit() {
+		return (int) limit;
+	}
+
+	public synchronized int getInFlight() {
+		return inFlight;
+	}
+
+	@Override
+	public Response intercept(Chain chain) throws IOException {
+		Request request = chain.request();
+		if (!isWrite(request)) {
+			return chain.proceed(request);
+		}
+		int concurrency = acquire();
+		long start = System.nanoTime();
+		Response response;
+		try {
+			response = chain.proceed(request);
+		}
+		catch (IOException e) {
+			// A timeout or a dropped connection is a slow write that never finished
+			onSlow();
+			throw e;
+		}
+		finally {
+			release();
+		}
+		if (response.code() == 429) {
+			onOverload(retryAfter(response.header("Retry-After")));
+		}
+		else if (response.code() >= 500) {
+			onSlow();
+		}
+		else {
+			onSuccess(System.nanoTime() - start, concurrency);
+		}
+		return response;
+	}
+
+	private static boolean isWrite(Request request) {
+		String method = request.method();
+		return !"GET".equals(method) && !"HEAD".equals(method) && !"OPTIONS".equals(method);
+	}
+
+	/**
+	 * @return the number of writes in flight, including this one
+	 */
+	private synchronized int acquire() throws InterruptedIOException {
+		try {
+			long now;
+			while ((now = System.nanoTime()) - pausedUntil < 0 || inFlight >= (int) limit) {
+				long wait = pausedUntil - now > 0 ? TimeUnit.NANOSECONDS.toMillis(pausedUntil - now) + 1 : 0;
+				wait(wait);
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted waiting for a write permit");
+		}
+		return ++inFlight;
+	}
+
+	private synchronized void release() {
+		inFlight--;
+		notifyAll();
+	}
+
+	/**
+	 * @param concurrency the writes that were in flight when this one started
+	 */
+	synchronized void onSuccess(long latency, int concurrency) {
+		if (latency > latencyThreshold) {
+			onSlow();
+		}
+		else if (concurrency * 2 >= limit) {
+			limit = Math.min(maxLimit, limit + 1 / limit);
+		}
+	}
+
+	synchronized void onSlow() {
+		limit = Math.max(minLimit, limit * LATENCY_DECREASE);
+	}
+
+	synchronized void onOverload(Duration retryAfter) {
+		limit = Math.max(minLimit, limit / 2);
+		if (retryAfter != null) {
+			long until = System.nanoTime() + retryAfter.toNanos();
+			if (until - pausedUntil > 0) {
+				pausedUntil = until;
+			}
+		}
+		log.info("API server overloaded, write limit now " + (int) limit
+				+ (retryAfter == null ? "" : ", pausing for " + retryAfter));
+		notifyAll();
+	}
+
+	private static Duration retryAfter(String header) {
+		if (header != null) {
+			try {
+				return Duration.ofSeconds(Long.parseLong(header.trim()));
+			}
+			catch (NumberFormatException e) {
+				// HTTP dates are not used by the API server
+			}
+		}
+		return null;
+	}
+
+}
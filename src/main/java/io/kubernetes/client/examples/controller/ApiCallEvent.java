@@ -0,0 +1,59 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples.controller;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for one API server call, recorded by the
+ * {@link ApiCallEventInterceptor}.
+ *
+ */
+@Name("io.kubernetes.client.examples.ApiCall")
+@Label("API Server Call")
+@Category({ "Kubernetes", "Controller" })
+@StackTrace(false)
+class ApiCallEvent extends Event {
+
+	@Label("Method")
+	String method;
+
+	@Label("Path")
+	String path;
+
+	@Label("Watch")
+	boolean watch;
+
+	@Label("Status")
+	int status;
+
+	@Label("Request Size")
+	@DataAmount
+	long requestBytes = -1;
+
+	@Label("Response Size")
+	@DataAmount
+	long responseBytes = -1;
+
+	@Label("Outcome")
+	String outcome;
+
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples.controller;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Records an {@link ApiCallEvent} for each API server call while a flight recording is
+ * running. For a watch the event only covers the time to the response headers, not the
+ * stream that follows. Sizes are taken from the Content-Length, so are -1 for chunked
+ * bodies.
+ *
+ */
+public class ApiCallEventInterceptor implements Interceptor {
+
+	@Override
+	public Response intercept(Chain chain) throws IOException {
+		ApiCallEvent event = new ApiCallEvent();
+		if (!event.isEnabled()) {
+			return chain.proceed(chain.request());
+		}
+		Request request = chain.request();
+		event.requestBytes = request.body() == null ? 0 : request.body().contentLength();
+		event.begin();
+		try {
+			Response response = chain.proceed(request);
+			event.status = response.code();
+			event.responseBytes = response.body() == null ? -1 : response.body().contentLength();
+			event.outcome = response.isSuccessful() ? "success" : "HTTP " + response.code();
+			return response;
+		}
+		catch (IOException | RuntimeException e) {
+			event.outcome = e.getClass().getSimpleName();
+			throw e;
+		}
+		finally {
+			event.end();
+			if (event.shouldCommit()) {
+				event.method = request.method();
+				event.path = request.url().encodedPath();
+				event.watch = "true".equals(request.url().queryParameter("watch"));
+				event.commit();
+			}
+		}
+	}
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples.controller;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import io.kubernetes.client.examples.controller.PriorityWorkQueue.Priority;
+import io.kubernetes.client.extended.controller.reconciler.Request;
+import io.kubernetes.client.informer.SharedIndexInformer;
+import io.kubernetes.client.informer.SharedInformer;
+
+/**
+ * Holds the controller back until every informer has synced. Until the gate is
+ * {@link #open(PriorityWorkQueue, SharedIndexInformer) opened} a
+ * {@link PrioritizedControllerWatch} drops its events, because the cache they would be
+ * reconciled against is still incomplete. Opening the gate enqueues everything in the
+ * cache in one go instead.
+ *
+ */
+public class CacheSyncGate implements BooleanSupplier {
+
+	private static Log log = LogFactory.getLog(CacheSyncGate.class);
+
+	private static final long POLL_MILLIS = 100;
+
+	private static final Duration WARN_INTERVAL = Duration.ofSeconds(10);
+
+	private final Map<String, ? extends SharedInformer<?>> informers;
+
+	private volatile boolean open;
+
+	/**
+	 * @param informers the informers to wait for, by name
+	 */
+	public CacheSyncGate(Map<String, ? extends SharedInformer<?>> informers) {
+		this.informers = informers;
+	}
+
+	/**
+	 * @return true once the gate is open and events should be processed
+	 */
+	@Override
+	public boolean getAsBoolean() {
+		return open;
+	}
+
+	public boolean hasSynced() {
+		for (SharedInformer<?> informer : informers.values()) {
+			if (!informer.hasSynced()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the sync state of each informer, by name
+	 */
+	public Map<String, Boolean> status() {
+		Map<String, Boolean> result = new TreeMap<>();
+		informers.forEach((name, informer) -> result.put(name, informer.hasSynced()));
+		return result;
+	}
+
+	/**
+	 * Block until every informer has synced, however long it takes, logging the ones
+	 * that have not every so often.
+	 */
+	public void await() throws InterruptedException {
+		long start = System.nanoTime();
+		long warn = start + WARN_INTERVAL.toNanos();
+		while (!hasSynced()) {
+			Thread.sleep(POLL_MILLIS);
+			if (System.nanoTime() - warn > 0) {
+				log.warn("Still waiting for informers to sync: " + status());
+				warn = System.nanoTime() + WARN_INTERVAL.toNanos();
+			}
+		}
+		log.info("Informers synced in " + Duration.ofNanos(System.nanoTime() - start).toMillis() + "ms");
+	}
+
+	/**
+	 * Let events through and enqueue every object in the cache. The gate opens first, so
+	 * an object that arrives in between is either in the cache or sends an event.
+	 */
+	public void open(PriorityWorkQueue queue, SharedIndexInformer<?> informer) {
+		open(queue, informer, key -> Duration.ZERO);
+	}
+
+	/**
+	 * @param delay when to enqueue each cache key: zero for straight away, later for a
+	 * key that is known to be up to date, or null to leave it to the resync
+	 */
+	public void open(PriorityWorkQueue queue, SharedIndexInformer<?> informer, Function<String, Duration> delay) {
+		open = true;
+		List<Request> requests = new ArrayList<>();
+		int deferred = 0;
+		for (String key : informer.getIndexer().listKeys()) {
+			Duration after = delay.apply(key);
+			if (after != null && after.isZero()) {
+				requests.add(ResyncScheduler.request(key));
+			}
+			else {
+				if (after != null) {
+					queue.addAfter(ResyncScheduler.request(key), after);
+				}
+				deferred++;
+			}
+		}
+		queue.addAll(requests, Priority.NORMAL);
+		log.info("Enqueued " + requests.size() + " objects from the synced cache"
+				+ (deferred == 0 ? "" : ", deferred " + deferred + " unchanged ones"));
+	}
+
+}
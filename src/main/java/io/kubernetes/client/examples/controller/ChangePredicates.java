@@ -0,0 +1,139 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples.controller;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.BiPredicate;
+
+import io.kubernetes.client.common.KubernetesObject;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+
+/**
+ * Predicates on update events (old and new object) that say whether anything a
+ * reconcile cares about has changed. Updates that only touch the status, managed fields
+ * or other controllers' annotations then never reach the work queue.
+ *
+ */
+public abstract class ChangePredicates {
+
+	public enum Change {
+
+		/**
+		 * The spec changed (the generation went up).
+		 */
+		GENERATION,
+
+		/**
+		 * Labels were added, removed or changed.
+		 */
+		LABELS,
+
+		/**
+		 * Annotations were added, removed or changed, apart from the ignored ones.
+		 */
+		ANNOTATIONS,
+
+		/**
+		 * The object is being deleted (its deletion timestamp was set).
+		 */
+		DELETION;
+
+	}
+
+	private ChangePredicates() {
+	}
+
+	public static BiPredicate<KubernetesObject, KubernetesObject> generationChanged() {
+		return (oldObj, newObj) -> !Objects.equals(oldObj.getMetadata().getGeneration(),
+				newObj.getMetadata().getGeneration());
+	}
+
+	public static BiPredicate<KubernetesObject, KubernetesObject> labelsChanged() {
+		return (oldObj, newObj) -> !Objects.equals(nonNull(oldObj.getMetadata().getLabels()),
+				nonNull(newObj.getMetadata().getLabels()));
+	}
+
+	/**
+	 * @param ignoredPrefixes annotations whose names start with one of these are not
+	 * compared
+	 */
+	public static BiPredicate<KubernetesObject, KubernetesObject> annotationsChanged(
+			Collection<String> ignoredPrefixes) {
+		return (oldObj, newObj) -> !Objects.equals(annotations(oldObj.getMetadata(), ignoredPrefixes),
+				annotations(newObj.getMetadata(), ignoredPrefixes));
+	}
+
+	public static BiPredicate<KubernetesObject, KubernetesObject> deletionStarted() {
+		return (oldObj, newObj) -> oldObj.getMetadata().getDeletionTimestamp() == null
+				&& newObj.getMetadata().getDeletionTimestamp() != null;
+	}
+
+	/**
+	 * @return a predicate that matches if any of the changes happened
+	 */
+	public static BiPredicate<KubernetesObject, KubernetesObject> anyOf(Collection<Change> changes,
+			Collection<String> ignoredAnnotationPrefixes) {
+		List<BiPredicate<KubernetesObject, KubernetesObject>> predicates = new ArrayList<>();
+		for (Change change : changes) {
+			switch (change) {
+			case GENERATION:
+				predicates.add(generationChanged());
+				break;
+			case LABELS:
+				predicates.add(labelsChanged());
+				break;
+			case ANNOTATIONS:
+				predicates.add(annotationsChanged(ignoredAnnotationPrefixes));
+				break;
+			default:
+				predicates.add(deletionStarted());
+			}
+		}
+		return (oldObj, newObj) -> {
+			for (BiPredicate<KubernetesObject, KubernetesObject> predicate : predicates) {
+				if (predicate.test(oldObj, newObj)) {
+					return true;
+				}
+			}
+			return false;
+		};
+	}
+
+	private static Map<String, String> annotations(V1ObjectMeta metadata, Collection<String> ignoredPrefixes) {
+		Map<String, String> result = new TreeMap<>();
+		if (metadata.getAnnotations() != null) {
+			metadata.getAnnotations().forEach((name, value) -> {
+				for (String prefix : ignoredPrefixes) {
+					if (name.startsWith(prefix)) {
+						return;
+					}
+				}
+				result.put(name, value);
+			});
+		}
+		return result;
+	}
+
+	private static Map<String, String> nonNull(Map<String, String> map) {
+		return map == null ? Map.of() : map;
+	}
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples.controller;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+import java.util.function.BooleanSupplier;
+
+import io.kubernetes.client.common.KubernetesObject;
+import io.kubernetes.client.examples.controller.PriorityWorkQueue.Priority;
+import io.kubernetes.client.extended.controller.ControllerWatch;
+import io.kubernetes.client.extended.controller.reconciler.Request;
+import io.kubernetes.client.informer.ResourceEventHandler;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+
+/**
+ * A {@link ControllerWatch} that classifies informer events before they hit a
+ * {@link PriorityWorkQueue}: adds, deletes and generation changes are
+ * {@link Priority#HIGH} and other updates are {@link Priority#NORMAL}; this watch never
+ * enqueues at {@link Priority#LOW}. Updates with the same resource version (informer
+ * resyncs, and unchanged objects when a relist replaces the cache) are dropped; periodic
+ * revisits are left to the {@link ResyncScheduler}. Other updates can be filtered with
+ * {@link #setUpdateFilter(BiPredicate)} (see {@link ChangePredicates}). Events are dropped while the optional
+ * readiness check (e.g. a {@link CacheSyncGate}) is false.
+ *
+ */
+public class PrioritizedControllerWatch<T extends KubernetesObject> implements ControllerWatch<T> {
+
+	private final Class<T> type;
+
+	private final PriorityWorkQueue queue;
+
+	private final Duration resyncPeriod;
+
+	private final BooleanSupplier ready;
+
+	private BiPredicate<? super T, ? super T> updateFilter = (oldObj, newObj) -> true;
+
+	private volatile Instant lastEvent;
+
+	public PrioritizedControllerWatch(Class<T> type, PriorityWorkQueue queue, Duration resyncPeriod) {
+		this(type, queue, resyncPeriod, () -> true);
+	}
+
+	public PrioritizedControllerWatch(Class<T> type, PriorityWorkQueue queue, Duration resyncPeriod,
+			BooleanSupplier ready) {
+		this.type = type;
+		this.queue = queue;
+		this.resyncPeriod = resyncPeriod;
+		this.ready = ready;
+	}
+
+	/**
+	 * @param updateFilter only updates that match (given the old and new object) are
+	 * enqueued
+	 */
+	public void setUpdateFilter(BiPredicate<? super T, ? super T> updateFilter) {
+		this.updateFilter = updateFilter;
+	}
+
+	/**
+	 * @return when the informer last sent an event (filtered or not), or null if it has
+	 * not sent any
+	 */
+	public Instant getLastEvent() {
+		return lastEvent;
+	}
+
+	@Override
+	public Class<T> getResourceClass() {
+		return type;
+	}
+
+	@Override
+	public Duration getResyncPeriod() {
+		return resyncPeriod;
+	}
+
+	@Override
+	public ResourceEventHandler<T> getResourceEventHandler() {
+		return new ResourceEventHandler<T>() {
+
+			@Override
+			public void onAdd(T obj) {
+				lastEvent = Instant.now();
+				if (ready.getAsBoolean()) {
+					queue.add(request(obj), Priority.HIGH);
+				}
+			}
+
+			@Override
+			public void onUpdate(T oldObj, T newObj) {
+				lastEvent = Instant.now();
+				if (ready.getAsBoolean() && !isUnchanged(oldObj, newObj) && updateFilter.test(oldObj, newObj)) {
+					queue.add(request(newObj), priority(oldObj, newObj));
+				}
+			}
+
+			@Override
+			public void onDelete(T obj, boolean deletedFinalStateUnknown) {
+				lastEvent = Instant.now();
+				if (ready.getAsBoolean()) {
+					queue.add(request(obj), Priority.HIGH);
+				}
+			}
+
+		};
+	}
+
+	static boolean isUnchanged(KubernetesObject oldObj, KubernetesObject newObj) {
+		return Objects.equals(oldObj.getMetadata().getResourceVersion(), newObj.getMetadata().getResourceVersion());
+	}
+
+	static Priority priority(KubernetesObject oldObj, KubernetesObject newObj) {
+		V1ObjectMeta before = oldObj.getMetadata();
+		V1ObjectMeta after = newObj.getMetadata();
+		if (!Objects.equals(before.getGeneration(), after.getGeneration())
+				|| before.getDeletionTimestamp() == null && after.getDeletionTimestamp() != null) {
+			return Priority.HIGH;
+		}
+		return Priority.NORMAL;
+	}
+
+	static Request request(KubernetesObject obj) {
+		return new Request(obj.getMetadata().getNamespace(), obj.getMetadata().getName());
+	}
+
+}
@@ -0,0 +1,460 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples.controller;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import io.kubernetes.client.extended.controller.reconciler.Request;
+import io.kubernetes.client.extended.workqueue.RateLimitingQueue;
+import io.kubernetes.client.extended.workqueue.ratelimiter.DefaultControllerRateLimiter;
+import io.kubernetes.client.extended.workqueue.ratelimiter.RateLimiter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * A work queue with a lane per {@link Priority}. Workers always drain the highest
+ * priority lane first, so a freshly edited resource does not wait behind a wave of
+ * resync events. Like the default queue, an item is only ever queued once, and an item
+ * that is added while it is being processed is held back until {@link #done(Request)}.
+ * Adding an item that is already queued at a lower priority promotes it.
+ * <p>
+ * Plain {@link #add(Request)} uses {@link Priority#NORMAL}, rate limited retries go back
+ * in at {@link Priority#NORMAL}, and timed requeues from {@link #addAfter(Request, Duration)}
+ * come back at {@link Priority#LOW}.
+ * <p>
+ * With {@link #setFairQueuing(boolean) fair queuing} each lane is further split by
+ * namespace and served deficit round-robin, so a namespace with thousands of queued
+ * items cannot hold up the others. A namespace with weight <i>w</i> gets <i>w</i> turns
+ * for every turn of a namespace with weight 1, and a namespace that already has its
+ * {@link #setNamespaceConcurrency(int, Map) concurrency limit} of items in flight is
+ * skipped until one of them is done. Wait times are then also recorded per namespace.
+ *
+ */
+public class PriorityWorkQueue implements RateLimitingQueue<Request> {
+
+	public enum Priority {
+
+		/**
+		 * Creates, deletes and spec (generation) changes.
+		 */
+		HIGH,
+
+		/**
+		 * Other changes, e.g. to metadata or children, and retries.
+		 */
+		NORMAL,
+
+		/**
+		 * Resyncs and scheduled refreshes.
+		 */
+		LOW;
+
+	}
+
+	private final Map<Priority, Lane> lanes = new HashMap<>();
+
+	private final Map<Request, Entry> dirty = new HashMap<>();
+
+	private final Set<Request> processing = new HashSet<>();
+
+	private final Map<Priority, Timer> waits = new HashMap<>();
+
+	private final Map<String, Timer> namespaceWaits = new HashMap<>();
+
+	private final Map<String, Integer> inFlight = new HashMap<>();
+
+	private final String name;
+
+	private final MeterRegistry registry;
+
+	private final RateLimiter<Request> rateLimiter;
+
+	private final ScheduledThreadPoolExecutor delays = new ScheduledThreadPoolExecutor(1);
+
+	private boolean shuttingDown;
+
+	private boolean fair;
+
+	private Map<String, Integer> weights = Map.of();
+
+	private int namespaceConcurrency;
+
+	private Map<String, Integer> namespaceConcurrencyOverrides = Map.of();
+
+	public PriorityWorkQueue(String name, MeterRegistry registry) {
+		this(name, registry, new DefaultControllerRateLimiter<>());
+	}
+
+	public PriorityWorkQueue(String name, MeterRegistry registry, RateLimiter<Request> rateLimiter) {
+		this.name = name;
+		this.registry = registry;
+		this.rateLimiter = rateLimiter;
+		for (Priority priority : Priority.values()) {
+			lanes.put(priority, new Lane());
+			String tag = priority.name().toLowerCase();
+			Gauge.builder("controller.queue.depth", this, queue -> queue.length(priority)).tag("name", name)
+					.tag("priority", tag).register(registry);
+			waits.put(priority, Timer.builder("controller.queue.wait").tag("name", name).tag("priority", tag)
+					.publishPercentileHistogram().register(registry));
+		}
+	}
+
+	/**
+	 * Switch per-namespace fair queuing on or off. Only call this before the queue is
+	 * used.
+	 */
+	public synchronized void setFairQueuing(boolean fair) {
+		this.fair = fair;
+	}
+
+	/**
+	 * @param weights the share of each namespace relative to the others (default 1)
+	 */
+	public synchronized void setNamespaceWeights(Map<String, Integer> weights) {
+		this.weights = new HashMap<>(weights);
+	}
+
+	/**
+	 * @param limit the maximum number of items from one namespace in flight at once, or
+	 * zero for no limit
+	 * @param overrides limits for particular namespaces
+	 */
+	public synchronized void setNamespaceConcurrency(int limit, Map<String, Integer> overrides) {
+		this.namespaceConcurrency = limit;
+		this.namespaceConcurrencyOverrides = new HashMap<>(overrides);
+	}
+
+	@Override
+	public void add(Request item) {
+		add(item, Priority.NORMAL);
+	}
+
+	public synchronized void add(Request item, Priority priority) {
+		if (shuttingDown) {
+			return;
+		}
+		Entry entry = dirty.get(item);
+		if (entry != null) {
+			if (priority.compareTo(entry.priority) < 0) {
+				if (lanes.get(entry.priority).remove(item)) {
+					lanes.get(priority).add(item);
+				}
+				entry.priority = priority;
+			}
+			return;
+		}
+		dirty.put(item, new Entry(priority, System.nanoTime()));
+		if (processing.contains(item)) {
+			return;
+		}
+		lanes.get(priority).add(item);
+		notifyAll();
+	}
+
+	/**
+	 * Add a batch of items under one lock, waking the workers once.
+	 */
+	public synchronized void addAll(Collection<Request> items, Priority priority) {
+		for (Request item : items) {
+			add(item, priority);
+		}
+	}
+
+	@Override
+	public synchronized int length() {
+		int length = 0;
+		for (Lane lane : lanes.values()) {
+			length += lane.size;
+		}
+		return length;
+	}
+
+	public synchronized int length(Priority priority) {
+		return lanes.get(priority).size;
+	}
+
+	/**
+	 * @return the number of queued items per namespace, if fair queuing is on
+	 */
+	public synchronized Map<String, Integer> lengthByNamespace() {
+		Map<String, Integer> result = new HashMap<>();
+		if (!fair) {
+			return result;
+		}
+		for (Lane lane : lanes.values()) {
+			lane.queues.forEach((namespace, queue) -> result.merge(namespace, queue.size(), Integer::sum));
+		}
+		return result;
+	}
+
+	/**
+	 * @return the items being processed right now
+	 */
+	public synchronized List<Request> processing() {
+		return new ArrayList<>(processing);
+	}
+
+	/**
+	 * @return how long the oldest queued item has been waiting
+	 */
+	public synchronized Duration oldestWait() {
+		long now = System.nanoTime();
+		long oldest = 0;
+		for (Lane lane : lanes.values()) {
+			for (Set<Request> queue : lane.queues.values()) {
+				for (Request item : queue) {
+					oldest = Math.max(oldest, now - dirty.get(item).enqueued);
+				}
+			}
+		}
+		return Duration.ofNanos(oldest);
+	}
+
+	/**
+	 * @return the number of items waiting to be added after a delay
+	 */
+	public int delayed() {
+		return delays.getQueue().size();
+	}
+
+	@Override
+	public synchronized Request get() throws InterruptedException {
+		Request item;
+		while ((item = poll()) == null && !shuttingDown) {
+			wait();
+		}
+		if (item == null) {
+			return null;
+		}
+		Entry entry = dirty.remove(item);
+		processing.add(item);
+		long wait = System.nanoTime() - entry.enqueued;
+		waits.get(entry.priority).record(wait, TimeUnit.NANOSECONDS);
+		if (fair) {
+			String namespace = namespace(item);
+			inFlight.merge(namespace, 1, Integer::sum);
+			namespaceWaits.computeIfAbsent(namespace, this::namespaceWait).record(wait, TimeUnit.NANOSECONDS);
+		}
+		return item;
+	}
+
+	private Request poll() {
+		for (Priority priority : Priority.values()) {
+			Request item = lanes.get(priority).poll();
+			if (item != null) {
+				return item;
+			}
+		}
+		return null;
+	}
+
+	private Timer namespaceWait(String namespace) {
+		return Timer.builder("controller.queue.namespace.wait").tag("name", name).tag("namespace", namespace)
+				.publishPercentileHistogram().register(registry);
+	}
+
+	@Override
+	public synchronized void done(Request item) {
+		processing.remove(item);
+		if (fair) {
+			String namespace = namespace(item);
+			boolean wasLimited = isLimited(namespace);
+			if (inFlight.merge(namespace, -1, Integer::sum) <= 0) {
+				inFlight.remove(namespace);
+			}
+			if (wasLimited) {
+				notifyAll();
+			}
+		}
+		Entry entry = dirty.get(item);
+		if (entry != null) {
+			lanes.get(entry.priority).add(item);
+			notifyAll();
+		}
+	}
+
+	@Override
+	public synchronized void shutDown() {
+		shuttingDown = true;
+		delays.shutdownNow();
+		notifyAll();
+	}
+
+	@Override
+	public synchronized boolean isShuttingDown() {
+		return shuttingDown;
+	}
+
+	@Override
+	public void addAfter(Request item, Duration duration) {
+		addAfter(item, duration, Priority.LOW);
+	}
+
+	/**
+	 * Synchronized like {@link #shutDown()}, so the delay executor cannot be shut down
+	 * between the check and the schedule.
+	 */
+	public synchronized void addAfter(Request item, Duration duration, Priority priority) {
+		if (duration.isZero() || duration.isNegative()) {
+			add(item, priority);
+			return;
+		}
+		if (shuttingDown) {
+			return;
+		}
+		delays.schedule(() -> add(item, priority), duration.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void addRateLimited(Request item) {
+		addAfter(item, rateLimiter.when(item), Priority.NORMAL);
+	}
+
+	@Override
+	public void forget(Request item) {
+		rateLimiter.forget(item);
+	}
+
+	@Override
+	public int numRequeues(Request item) {
+		return rateLimiter.numRequeues(item);
+	}
+
+	private String key(Request item) {
+		return fair ? namespace(item) : "";
+	}
+
+	private static String namespace(Request item) {
+		return item.getNamespace() == null ? "" : item.getNamespace();
+	}
+
+	private boolean isLimited(String namespace) {
+		if (!fair) {
+			return false;
+		}
+		int limit = namespaceConcurrencyOverrides.getOrDefault(namespace, namespaceConcurrency);
+		return limit > 0 && inFlight.getOrDefault(namespace, 0) >= limit;
+	}
+
+	/**
+	 * The items queued at one priority, in a FIFO queue per namespace (or a single one if
+	 * fair queuing is off). Namespaces with queued items take turns in a ring: the one at
+	 * the head tops up its deficit by its weight when it runs out, and keeps the head
+	 * until it has spent it.
+	 */
+	private class Lane {
+
+		private final Map<String, Set<Request>> queues = new HashMap<>();
+
+		private final Deque<String> ring = new ArrayDeque<>();
+
+		private final Map<String, Integer> deficits = new HashMap<>();
+
+		private int size;
+
+		void add(Request item) {
+			String key = key(item);
+			Set<Request> queue = queues.get(key);
+			if (queue == null) {
+				queue = new LinkedHashSet<>();
+				queues.put(key, queue);
+				ring.addLast(key);
+			}
+			if (queue.add(item)) {
+				size++;
+			}
+		}
+
+		boolean remove(Request item) {
+			String key = key(item);
+			Set<Request> queue = queues.get(key);
+			if (queue == null || !queue.remove(item)) {
+				return false;
+			}
+			size--;
+			if (queue.isEmpty()) {
+				drop(key);
+			}
+			return true;
+		}
+
+		Request poll() {
+			for (int turns = ring.size(); turns > 0; turns--) {
+				String key = ring.peekFirst();
+				if (isLimited(key)) {
+					ring.addLast(ring.pollFirst());
+					continue;
+				}
+				int deficit = deficits.getOrDefault(key, 0);
+				if (deficit <= 0) {
+					deficit = Math.max(1, weights.getOrDefault(key, 1));
+				}
+				Set<Request> queue = queues.get(key);
+				Iterator<Request> iterator = queue.iterator();
+				Request item = iterator.next();
+				iterator.remove();
+				size--;
+				if (queue.isEmpty()) {
+					drop(key);
+				}
+				else if (--deficit > 0) {
+					deficits.put(key, deficit);
+				}
+				else {
+					deficits.remove(key);
+					ring.addLast(ring.pollFirst());
+				}
+				return item;
+			}
+			return null;
+		}
+
+		private void drop(String key) {
+			queues.remove(key);
+			ring.remove(key);
+			deficits.remove(key);
+		}
+
+	}
+
+	private static class Entry {
+
+		private Priority priority;
+
+		private final long enqueued;
+
+		Entry(Priority priority, long enqueued) {
+			this.priority = priority;
+			this.enqueued = enqueued;
+		}
+
+	}
+
+}
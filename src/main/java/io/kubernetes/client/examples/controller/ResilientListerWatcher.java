@@ -0,0 +1,138 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples.controller;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import io.kubernetes.client.common.KubernetesListObject;
+import io.kubernetes.client.common.KubernetesObject;
+import io.kubernetes.client.informer.ListerWatcher;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.util.CallGeneratorParams;
+import io.kubernetes.client.util.Watchable;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Wraps a {@link ListerWatcher} to count and time the lists (every list after the first
+ * is a relist, usually because a watch expired) and to back off exponentially when a
+ * list or watch starts less than the maximum backoff after the previous one of the same
+ * kind. Healthy watches last for minutes, so this only slows down a failure loop, and
+ * a struggling API server is not hit by a relist storm. Once calls are spaced out again
+ * the backoff resets.
+ *
+ */
+public class ResilientListerWatcher<T extends KubernetesObject, L extends KubernetesListObject>
+		implements ListerWatcher<T, L> {
+
+	private static Log log = LogFactory.getLog(ResilientListerWatcher.class);
+
+	private final ListerWatcher<T, L> delegate;
+
+	private final Counter relists;
+
+	private final Timer lists;
+
+	private final Duration initialBackoff;
+
+	private final Duration maxBackoff;
+
+	private final Backoff listBackoff = new Backoff();
+
+	private final Backoff watchBackoff = new Backoff();
+
+	private boolean listed;
+
+	private volatile String resourceVersion;
+
+	public ResilientListerWatcher(ListerWatcher<T, L> delegate, String name, MeterRegistry registry,
+			Duration initialBackoff, Duration maxBackoff) {
+		this.delegate = delegate;
+		this.initialBackoff = initialBackoff;
+		this.maxBackoff = maxBackoff;
+		this.relists = Counter.builder("controller.informer.relists").tag("name", name).register(registry);
+		this.lists = Timer.builder("controller.informer.list").tag("name", name).register(registry);
+	}
+
+	@Override
+	public L list(CallGeneratorParams params) throws ApiException {
+		if (listed) {
+			relists.increment();
+			log.info("Relisting from resource version " + resourceVersion);
+		}
+		listBackoff.pause();
+		listed = true;
+		long start = System.nanoTime();
+		try {
+			L list = delegate.list(params);
+			if (list.getMetadata() != null) {
+				resourceVersion = list.getMetadata().getResourceVersion();
+			}
+			return list;
+		}
+		finally {
+			lists.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	@Override
+	public Watchable<T> watch(CallGeneratorParams params) throws ApiException {
+		watchBackoff.pause();
+		if (params.resourceVersion != null) {
+			resourceVersion = params.resourceVersion;
+		}
+		return delegate.watch(params);
+	}
+
+	/**
+	 * @return the resource version of the last list or watch
+	 */
+	public String getResourceVersion() {
+		return resourceVersion;
+	}
+
+	private class Backoff {
+
+		private long backoff;
+
+		private long last;
+
+		void pause() {
+			long now = System.nanoTime();
+			if (last != 0 && now - last < maxBackoff.toNanos()) {
+				backoff = backoff == 0 ? initialBackoff.toNanos() : Math.min(backoff * 2, maxBackoff.toNanos());
+				log.debug("Backing off for " + TimeUnit.NANOSECONDS.toMillis(backoff) + "ms");
+				try {
+					Thread.sleep(TimeUnit.NANOSECONDS.toMillis(backoff));
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			else {
+				backoff = 0;
+			}
+			last = System.nanoTime();
+		}
+
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples.controller;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import io.kubernetes.client.examples.controller.PriorityWorkQueue.Priority;
+import io.kubernetes.client.extended.controller.reconciler.Request;
+import io.kubernetes.client.informer.SharedIndexInformer;
+
+/**
+ * Replaces the informer's periodic resync, which enqueues every key at once, with a
+ * steady drip of {@link Priority#LOW} requests. Keys are visited in a stable, hashed
+ * order, and the pace is either fixed (items per second) or chosen so that one pass over
+ * the cache takes the resync period.
+ *
+ */
+public class ResyncScheduler {
+
+	private static Log log = LogFactory.getLog(ResyncScheduler.class);
+
+	private static final long TICK_MILLIS = 200;
+
+	private final SharedIndexInformer<?> informer;
+
+	private final PriorityWorkQueue queue;
+
+	private final Duration period;
+
+	private final double itemsPerSecond;
+
+	private ScheduledExecutorService executor;
+
+	private List<String> keys = new ArrayList<>();
+
+	private int cursor;
+
+	private double rate;
+
+	private double tokens;
+
+	/**
+	 * @param itemsPerSecond the fixed pace, or zero to spread each pass over the period
+	 */
+	public ResyncScheduler(SharedIndexInformer<?> informer, PriorityWorkQueue queue, Duration period,
+			double itemsPerSecond) {
+		this.informer = informer;
+		this.queue = queue;
+		this.period = period;
+		this.itemsPerSecond = itemsPerSecond;
+	}
+
+	public synchronized void start() {
+		if (executor != null || period.isZero() && itemsPerSecond <= 0) {
+			return;
+		}
+		executor = Executors.newSingleThreadScheduledExecutor();
+		executor.scheduleWithFixedDelay(this::tick, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	public synchronized void stop() {
+		if (executor != null) {
+			executor.shutdownNow();
+			executor = null;
+		}
+	}
+
+	void tick() {
+		try {
+			if (!informer.hasSynced()) {
+				return;
+			}
+			if (cursor >= keys.size()) {
+				refresh();
+			}
+			// Don't let tokens pile up into a burst if the queue was busy
+			tokens = Math.min(tokens + rate * TICK_MILLIS / 1000, Math.max(1, rate));
+			while (tokens >= 1 && cursor < keys.size()) {
+				queue.add(request(keys.get(cursor++)), Priority.LOW);
+				tokens--;
+			}
+		}
+		catch (RuntimeException e) {
+			log.warn("Resync tick failed", e);
+		}
+	}
+
+	private void refresh() {
+		keys = new ArrayList<>(informer.getIndexer().listKeys());
+		keys.sort(Comparator.comparingInt(String::hashCode).thenComparing(Comparator.naturalOrder()));
+		cursor = 0;
+		if (itemsPerSecond > 0) {
+			rate = itemsPerSecond;
+		}
+		else {
+			rate = keys.size() * 1000.0 / period.toMillis();
+		}
+		log.debug("Resyncing " + keys.size() + " keys at " + rate + "/s");
+	}
+
+	static Request request(String key) {
+		int index = key.indexOf('/');
+		return index < 0 ? new Request(key) : new Request(key.substring(0, index), key.substring(index + 1));
+	}
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples.controller;
+
+import java.util.function.Supplier;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import io.kubernetes.client.common.KubernetesListObject;
+import io.kubernetes.client.common.KubernetesObject;
+import io.kubernetes.client.informer.ListerWatcher;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.util.CallGeneratorParams;
+import io.kubernetes.client.util.Watchable;
+import io.kubernetes.client.util.generic.GenericKubernetesApi;
+import io.kubernetes.client.util.generic.options.ListOptions;
+
+/**
+ * A {@link ListerWatcher} for all namespaces that can answer the first list from a
+ * saved snapshot, so the informer starts with a full cache and watches from the saved
+ * resource version. If that version has expired the watch fails with 410 Gone and the
+ * informer falls back to a real list.
+ *
+ */
+public class SnapshotListerWatcher<T extends KubernetesObject, L extends KubernetesListObject>
+		implements ListerWatcher<T, L> {
+
+	private static Log log = LogFactory.getLog(SnapshotListerWatcher.class);
+
+	private final GenericKubernetesApi<T, L> api;
+
+	private Supplier<L> snapshot;
+
+	/**
+	 * @param snapshot supplies the saved list (with the resource version in its
+	 * metadata), or null if there is none
+	 */
+	public SnapshotListerWatcher(GenericKubernetesApi<T, L> api, Supplier<L> snapshot) {
+		this.api = api;
+		this.snapshot = snapshot;
+	}
+
+	@Override
+	public L list(CallGeneratorParams params) throws ApiException {
+		Supplier<L> saved = this.snapshot;
+		this.snapshot = null;
+		if (saved != null) {
+			L list = saved.get();
+			if (list != null && list.getMetadata() != null && list.getMetadata().getResourceVersion() != null) {
+				log.info("Starting from snapshot at resource version " + list.getMetadata().getResourceVersion()
+						+ " with " + list.getItems().size() + " items");
+				return list;
+			}
+		}
+		return api.list(options(params)).throwsApiException().getObject();
+	}
+
+	@Override
+	public Watchable<T> watch(CallGeneratorParams params) throws ApiException {
+		return api.watch(options(params));
+	}
+
+	static ListOptions options(CallGeneratorParams params) {
+		ListOptions options = new ListOptions();
+		options.setResourceVersion(params.resourceVersion);
+		options.setTimeoutSeconds(params.timeoutSeconds);
+		return options;
+	}
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples.controller;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.kubernetes.client.extended.controller.reconciler.Reconciler;
+import io.kubernetes.client.extended.controller.reconciler.Request;
+import io.kubernetes.client.extended.controller.reconciler.Result;
+
+/**
+ * Wraps a {@link Reconciler} to keep track of what each worker thread is doing and of
+ * the keys that keep failing, for diagnostics. A reconcile that throws, or asks to be
+ * requeued straight away, counts as a retry, and a reconcile that finishes without
+ * asking to be requeued resets the count.
+ *
+ */
+public class TrackingReconciler implements Reconciler {
+
+	private final Reconciler delegate;
+
+	private final Map<String, Work> workers = new ConcurrentHashMap<>();
+
+	private final Map<Request, Integer> retries = new ConcurrentHashMap<>();
+
+	public TrackingReconciler(Reconciler delegate) {
+		this.delegate = delegate;
+	}
+
+	@Override
+	public Result reconcile(Request request) {
+		String worker = Thread.currentThread().getName();
+		workers.put(worker, new Work(request, System.nanoTime()));
+		boolean retry = true;
+		try {
+			Result result = delegate.reconcile(request);
+			retry = result.isRequeue()
+					&& (result.getRequeueAfter() == null || result.getRequeueAfter().isZero());
+			return result;
+		}
+		finally {
+			workers.remove(worker);
+			if (retry) {
+				retries.merge(request, 1, Integer::sum);
+			}
+			else {
+				retries.remove(request);
+			}
+		}
+	}
+
+	/**
+	 * @return the key each busy worker is reconciling and for how long, by thread name
+	 */
+	public Map<String, Map<String, Object>> workers() {
+		long now = System.nanoTime();
+		Map<String, Map<String, Object>> result = new TreeMap<>();
+		workers.forEach((name, work) -> result.put(name, Map.of("key", key(work.request), "elapsed",
+				Duration.ofNanos(now - work.started).toMillis())));
+		return result;
+	}
+
+	/**
+	 * @return the number of retries in a row for each key that has failed
+	 */
+	public Map<String, Integer> retries() {
+		Map<String, Integer> result = new TreeMap<>();
+		retries.forEach((request, count) -> result.put(key(request), count));
+		return result;
+	}
+
+	static String key(Request request) {
+		return request.getNamespace() == null ? request.getName() : request.getNamespace() + "/" + request.getName();
+	}
+
+	private static class Work {
+
+		private final Request request;
+
+		private final long started;
+
+		Work(Request request, long started) {
+			this.request = request;
+			this.started = started;
+		}
+
+	}
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples.controller;
+
+import java.io.IOException;
+
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Asks the API server for bookmark events on every watch. Bookmarks carry the latest
+ * resource version even when nothing we watch has changed, so a reconnecting watch can
+ * resume from a recent version instead of one that has expired (which costs a full
+ * relist).
+ *
+ */
+public class WatchBookmarksInterceptor implements Interceptor {
+
+	static final String WATCH = "watch";
+
+	static final String ALLOW_WATCH_BOOKMARKS = "allowWatchBookmarks";
+
+	@Override
+	public Response intercept(Chain chain) throws IOException {
+		Request request = chain.request();
+		HttpUrl url = request.url();
+		if ("true".equals(url.queryParameter(WATCH)) && url.queryParameter(ALLOW_WATCH_BOOKMARKS) == null) {
+			HttpUrl bookmarks = url.newBuilder().addQueryParameter(ALLOW_WATCH_BOOKMARKS, "true").build();
+			request = request.newBuilder().url(bookmarks).build();
+		}
+		return chain.proceed(request);
+	}
+
+}
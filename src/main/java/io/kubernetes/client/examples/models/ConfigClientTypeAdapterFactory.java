@@ -0,0 +1,326 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples.models;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import io.kubernetes.client.openapi.models.V1ListMeta;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+
+/**
+ * Hand-written Gson adapters for the ConfigClient models, so that (de)serialising them
+ * needs no reflection. Unknown fields are skipped. The metadata is left to the adapters
+ * Gson already has for the Kubernetes models. Register it with
+ * {@link #register(io.kubernetes.client.openapi.JSON)}.
+ *
+ */
+public class ConfigClientTypeAdapterFactory implements TypeAdapterFactory {
+
+	public static void register(io.kubernetes.client.openapi.JSON json) {
+		json.setGson(json.getGson().newBuilder().registerTypeAdapterFactory(new ConfigClientTypeAdapterFactory())
+				.create());
+	}
+
+	@Override
+	public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+		Class<? super T> raw = type.getRawType();
+		TypeAdapter<?> result;
+		if (raw == V1ConfigClient.class) {
+			result = new ConfigClientAdapter(gson);
+		}
+		else if (raw == V1ConfigClientList.class) {
+			result = new ConfigClientListAdapter(gson);
+		}
+		else if (raw == V1ConfigClientSpec.class) {
+			result = new SpecAdapter();
+		}
+		else if (raw == V1ConfigClientStatus.class) {
+			result = new StatusAdapter();
+		}
+		else {
+			return null;
+		}
+		@SuppressWarnings("unchecked")
+		TypeAdapter<T> adapter = (TypeAdapter<T>) result;
+		return adapter;
+	}
+
+	private static class ConfigClientAdapter extends TypeAdapter<V1ConfigClient> {
+
+		private final TypeAdapter<V1ObjectMeta> metadata;
+
+		private final TypeAdapter<V1ConfigClientSpec> spec;
+
+		private final TypeAdapter<V1ConfigClientStatus> status;
+
+		ConfigClientAdapter(Gson gson) {
+			this.metadata = gson.getAdapter(V1ObjectMeta.class);
+			this.spec = gson.getAdapter(V1ConfigClientSpec.class);
+			this.status = gson.getAdapter(V1ConfigClientStatus.class);
+		}
+
+		@Override
+		public void write(JsonWriter out, V1ConfigClient value) throws IOException {
+			if (value == null) {
+				out.nullValue();
+				return;
+			}
+			out.beginObject();
+			out.name(V1ConfigClient.SERIALIZED_NAME_API_VERSION).value(value.getApiVersion());
+			out.name(V1ConfigClient.SERIALIZED_NAME_KIND).value(value.getKind());
+			out.name(V1ConfigClient.SERIALIZED_NAME_METADATA);
+			metadata.write(out, value.getMetadata());
+			out.name(V1ConfigClient.SERIALIZED_NAME_SPEC);
+			spec.write(out, value.getSpec());
+			out.name(V1ConfigClient.SERIALIZED_NAME_STATUS);
+			status.write(out, value.getStatus());
+			out.endObject();
+		}
+
+		@Override
+		public V1ConfigClient read(JsonReader in) throws IOException {
+			if (in.peek() == JsonToken.NULL) {
+				in.nextNull();
+				return null;
+			}
+			V1ConfigClient value = new V1ConfigClient();
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case V1ConfigClient.SERIALIZED_NAME_API_VERSION:
+					value.setApiVersion(nextString(in));
+					break;
+				case V1ConfigClient.SERIALIZED_NAME_KIND:
+					value.setKind(nextString(in));
+					break;
+				case V1ConfigClient.SERIALIZED_NAME_METADATA:
+					value.setMetadata(metadata.read(in));
+					break;
+				case V1ConfigClient.SERIALIZED_NAME_SPEC:
+					value.setSpec(spec.read(in));
+					break;
+				case V1ConfigClient.SERIALIZED_NAME_STATUS:
+					value.setStatus(status.read(in));
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return value;
+		}
+
+	}
+
+	private static class ConfigClientListAdapter extends TypeAdapter<V1ConfigClientList> {
+
+		private final TypeAdapter<V1ListMeta> metadata;
+
+		private final TypeAdapter<V1ConfigClient> item;
+
+		ConfigClientListAdapter(Gson gson) {
+			this.metadata = gson.getAdapter(V1ListMeta.class);
+			this.item = gson.getAdapter(V1ConfigClient.class);
+		}
+
+		@Override
+		public void write(JsonWriter out, V1ConfigClientList value) throws IOException {
+			if (value == null) {
+				out.nullValue();
+				return;
+			}
+			out.beginObject();
+			out.name(V1ConfigClientList.SERIALIZED_NAME_API_VERSION).value(value.getApiVersion());
+			out.name(V1ConfigClientList.SERIALIZED_NAME_KIND).value(value.getKind());
+			out.name(V1ConfigClientList.SERIALIZED_NAME_METADATA);
+			metadata.write(out, value.getMetadata());
+			out.name(V1ConfigClientList.SERIALIZED_NAME_ITEMS);
+			if (value.getItems() == null) {
+				out.nullValue();
+			}
+			else {
+				out.beginArray();
+				for (V1ConfigClient client : value.getItems()) {
+					item.write(out, client);
+				}
+				out.endArray();
+			}
+			out.endObject();
+		}
+
+		@Override
+		public V1ConfigClientList read(JsonReader in) throws IOException {
+			if (in.peek() == JsonToken.NULL) {
+				in.nextNull();
+				return null;
+			}
+			V1ConfigClientList value = new V1ConfigClientList();
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case V1ConfigClientList.SERIALIZED_NAME_API_VERSION:
+					value.setApiVersion(nextString(in));
+					break;
+				case V1ConfigClientList.SERIALIZED_NAME_KIND:
+					value.setKind(nextString(in));
+					break;
+				case V1ConfigClientList.SERIALIZED_NAME_METADATA:
+					value.setMetadata(metadata.read(in));
+					break;
+				case V1ConfigClientList.SERIALIZED_NAME_ITEMS:
+					value.setItems(readItems(in));
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return value;
+		}
+
+		private List<V1ConfigClient> readItems(JsonReader in) throws IOException {
+			List<V1ConfigClient> items = new ArrayList<>();
+			if (in.peek() == JsonToken.NULL) {
+				in.nextNull();
+				return items;
+			}
+			in.beginArray();
+			while (in.hasNext()) {
+				items.add(item.read(in));
+			}
+			in.endArray();
+			return items;
+		}
+
+	}
+
+	private static class SpecAdapter extends TypeAdapter<V1ConfigClientSpec> {
+
+		@Override
+		public void write(JsonWriter out, V1ConfigClientSpec value) throws IOException {
+			if (value == null) {
+				out.nullValue();
+				return;
+			}
+			out.beginObject();
+			out.name(V1ConfigClientSpec.SERIALIZED_NAME_URL).value(value.getUrl());
+			out.name(V1ConfigClientSpec.SERIALIZED_NAME_REFRESH_INTERVAL).value(value.getRefreshInterval());
+			out.name(V1ConfigClientSpec.SERIALIZED_NAME_FORMAT).value(value.getFormat());
+			out.endObject();
+		}
+
+		@Override
+		public V1ConfigClientSpec read(JsonReader in) throws IOException {
+			if (in.peek() == JsonToken.NULL) {
+				in.nextNull();
+				return null;
+			}
+			V1ConfigClientSpec value = new V1ConfigClientSpec();
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case V1ConfigClientSpec.SERIALIZED_NAME_URL:
+					value.setUrl(nextString(in));
+					break;
+				case V1ConfigClientSpec.SERIALIZED_NAME_REFRESH_INTERVAL:
+					value.setRefreshInterval(nextString(in));
+					break;
+				case V1ConfigClientSpec.SERIALIZED_NAME_FORMAT:
+					value.setFormat(nextString(in));
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return value;
+		}
+
+	}
+
+	private static class StatusAdapter extends TypeAdapter<V1ConfigClientStatus> {
+
+		@Override
+		public void write(JsonWriter out, V1ConfigClientStatus value) throws IOException {
+			if (value == null) {
+				out.nullValue();
+				return;
+			}
+			out.beginObject();
+			out.name(V1ConfigClientStatus.SERIALIZED_NAME_COMPLETE).value(value.getComplete());
+			out.name(V1ConfigClientStatus.SERIALIZED_NAME_OBSERVED_GENERATION).value(value.getObservedGeneration());
+			out.name(V1ConfigClientStatus.SERIALIZED_NAME_MESSAGE).value(value.getMessage());
+			out.endObject();
+		}
+
+		@Override
+		public V1ConfigClientStatus read(JsonReader in) throws IOException {
+			if (in.peek() == JsonToken.NULL) {
+				in.nextNull();
+				return null;
+			}
+			V1ConfigClientStatus value = new V1ConfigClientStatus();
+			in.beginObject();
+			while (in.hasNext()) {
+				switch (in.nextName()) {
+				case V1ConfigClientStatus.SERIALIZED_NAME_COMPLETE:
+					if (in.peek() == JsonToken.NULL) {
+						in.nextNull();
+					}
+					else {
+						value.setComplete(in.nextBoolean());
+					}
+					break;
+				case V1ConfigClientStatus.SERIALIZED_NAME_OBSERVED_GENERATION:
+					if (in.peek() == JsonToken.NULL) {
+						in.nextNull();
+					}
+					else {
+						value.setObservedGeneration(in.nextLong());
+					}
+					break;
+				case V1ConfigClientStatus.SERIALIZED_NAME_MESSAGE:
+					value.setMessage(nextString(in));
+					break;
+				default:
+					in.skipValue();
+				}
+			}
+			in.endObject();
+			return value;
+		}
+
+	}
+
+	private static String nextString(JsonReader in) throws IOException {
+		if (in.peek() == JsonToken.NULL) {
+			in.nextNull();
+			return null;
+		}
+		return in.nextString();
+	}
+
+}
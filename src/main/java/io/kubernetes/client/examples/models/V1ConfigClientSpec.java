@@ -31,6 +31,16 @@ public class V1ConfigClientSpec {
 	@SerializedName(SERIALIZED_NAME_URL)
 	private String url;
 
+	public static final String SERIALIZED_NAME_REFRESH_INTERVAL = "refreshInterval";
+
+	@SerializedName(SERIALIZED_NAME_REFRESH_INTERVAL)
+	private String refreshInterval;
+
+	public static final String SERIALIZED_NAME_FORMAT = "format";
+
+	@SerializedName(SERIALIZED_NAME_FORMAT)
+	private String format;
+
 	public V1ConfigClientSpec url(String url) {
 
 		this.url = url;
@@ -52,6 +62,48 @@ public class V1ConfigClientSpec {
 		this.url = url;
 	}
 
+	public V1ConfigClientSpec refreshInterval(String refreshInterval) {
+
+		this.refreshInterval = refreshInterval;
+		return this;
+	}
+
+	/**
+	 * How often to re-fetch the environment, e.g. 30s, 5m or 1h
+	 * @return refreshInterval
+	 **/
+	@javax.annotation.Nullable
+	@ApiModelProperty(value = "How often to re-fetch the environment, e.g. 30s, 5m or 1h")
+
+	public String getRefreshInterval() {
+		return refreshInterval;
+	}
+
+	public void setRefreshInterval(String refreshInterval) {
+		this.refreshInterval = refreshInterval;
+	}
+
+	public V1ConfigClientSpec format(String format) {
+
+		this.format = format;
+		return this;
+	}
+
+	/**
+	 * How to store the environment in the ConfigMap: data (the default) or gzip
+	 * @return format
+	 **/
+	@javax.annotation.Nullable
+	@ApiModelProperty(value = "How to store the environment in the ConfigMap: data (the default) or gzip")
+
+	public String getFormat() {
+		return format;
+	}
+
+	public void setFormat(String format) {
+		this.format = format;
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) {
@@ -61,12 +113,14 @@ public class V1ConfigClientSpec {
 			return false;
 		}
 		V1ConfigClientSpec v1ConfigClientSpec = (V1ConfigClientSpec) o;
-		return Objects.equals(this.url, v1ConfigClientSpec.url);
+		return Objects.equals(this.url, v1ConfigClientSpec.url)
+				&& Objects.equals(this.refreshInterval, v1ConfigClientSpec.refreshInterval)
+				&& Objects.equals(this.format, v1ConfigClientSpec.format);
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(url);
+		return Objects.hash(url, refreshInterval, format);
 	}
 
 	@Override
@@ -74,6 +128,8 @@ public class V1ConfigClientSpec {
 		StringBuilder sb = new StringBuilder();
 		sb.append("class V1ConfigClientSpec {\n");
 		sb.append("    url: ").append(toIndentedString(url)).append("\n");
+		sb.append("    refreshInterval: ").append(toIndentedString(refreshInterval)).append("\n");
+		sb.append("    format: ").append(toIndentedString(format)).append("\n");
 		sb.append("}");
 		return sb.toString();
 	}
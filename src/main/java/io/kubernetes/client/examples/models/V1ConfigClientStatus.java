@@ -36,6 +36,11 @@ public class V1ConfigClientStatus {
 	@SerializedName(SERIALIZED_NAME_OBSERVED_GENERATION)
 	private Long observedGeneration;
 
+	public static final String SERIALIZED_NAME_MESSAGE = "message";
+
+	@SerializedName(SERIALIZED_NAME_MESSAGE)
+	private String message;
+
 	public V1ConfigClientStatus complete(Boolean complete) {
 
 		this.complete = complete;
@@ -78,6 +83,27 @@ public class V1ConfigClientStatus {
 		this.observedGeneration = observedGeneration;
 	}
 
+	public V1ConfigClientStatus message(String message) {
+
+		this.message = message;
+		return this;
+	}
+
+	/**
+	 * Why the ConfigClient is not complete, if it isn&#39;t
+	 * @return message
+	 **/
+	@javax.annotation.Nullable
+	@ApiModelProperty(value = "Why the ConfigClient is not complete, if it isn't")
+
+	public String getMessage() {
+		return message;
+	}
+
+	public void setMessage(String message) {
+		this.message = message;
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) {
@@ -88,12 +114,13 @@ public class V1ConfigClientStatus {
 		}
 		V1ConfigClientStatus v1ConfigClientStatus = (V1ConfigClientStatus) o;
 		return Objects.equals(this.complete, v1ConfigClientStatus.complete)
-				&& Objects.equals(this.observedGeneration, v1ConfigClientStatus.observedGeneration);
+				&& Objects.equals(this.observedGeneration, v1ConfigClientStatus.observedGeneration)
+				&& Objects.equals(this.message, v1ConfigClientStatus.message);
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(complete, observedGeneration);
+		return Objects.hash(complete, observedGeneration, message);
 	}
 
 	@Override
@@ -102,6 +129,7 @@ public class V1ConfigClientStatus {
 		sb.append("class V1ConfigClientStatus {\n");
 		sb.append("    complete: ").append(toIndentedString(complete)).append("\n");
 		sb.append("    observedGeneration: ").append(toIndentedString(observedGeneration)).append("\n");
+		sb.append("    message: ").append(toIndentedString(message)).append("\n");
 		sb.append("}");
 		return sb.toString();
 	}
@@ -15,6 +15,8 @@
  */
 package io.kubernetes.client.examples.reconciler;
 
+import java.time.Duration;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Objects;
 
@@ -31,6 +33,17 @@ public interface ChildProvider<P extends KubernetesObject, T extends KubernetesO
 
 	T desired(P parent);
 
+	/**
+	 * @return the desired children by key (empty to delete them all). By default the
+	 * {@link #desired(KubernetesObject) single child}, under
+	 * {@link ChildReconciler#DEFAULT_KEY}.
+	 */
+	default Map<String, T> desiredChildren(P parent) {
+		T desired = desired(parent);
+		return desired == null ? Collections.emptyMap()
+				: Collections.singletonMap(ChildReconciler.DEFAULT_KEY, desired);
+	}
+
 	default void reflectStatusOnParent(P parent, T actual, @Nullable ApiException e) {
 	}
 
@@ -44,6 +57,15 @@ public interface ChildProvider<P extends KubernetesObject, T extends KubernetesO
 	default void harmonizeImmutableFields(T actual, T desired) {
 	}
 
+	/**
+	 * @return how long until the parent should be reconciled again, or null to wait for
+	 * the next event or resync
+	 */
+	@Nullable
+	default Duration requeueAfter(P parent) {
+		return null;
+	}
+
 	static boolean mapEquals(Map<String, String> actual, Map<String, String> desired) {
 		if (actual == null && desired != null) {
 			return desired.isEmpty();
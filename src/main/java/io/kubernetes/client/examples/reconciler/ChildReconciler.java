@@ -15,8 +15,12 @@
  */
 package io.kubernetes.client.examples.reconciler;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.annotation.Nullable;
 
@@ -27,8 +31,13 @@ import io.kubernetes.client.common.KubernetesListObject;
 import io.kubernetes.client.common.KubernetesObject;
 import io.kubernetes.client.extended.controller.reconciler.Result;
 import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.models.V1DeleteOptions;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
 import io.kubernetes.client.openapi.models.V1OwnerReference;
+import io.kubernetes.client.openapi.models.V1Preconditions;
 import io.kubernetes.client.util.generic.GenericKubernetesApi;
+import io.kubernetes.client.util.generic.KubernetesApiResponse;
+import io.kubernetes.client.util.generic.options.ListOptions;
 
 /**
  * @author Dave Syer
@@ -39,64 +48,151 @@ public class ChildReconciler<P extends KubernetesObject, T extends KubernetesObj
 
 	private static Log log = LogFactory.getLog(ChildReconciler.class);
 
+	/**
+	 * Label identifying the controller that manages a child.
+	 */
+	public static final String MANAGED_BY_LABEL = "app.kubernetes.io/managed-by";
+
+	/**
+	 * Label carrying the UID of the parent of a child.
+	 */
+	public static final String OWNER_UID_LABEL = "spring.io/owner-uid";
+
+	/**
+	 * Label carrying the key of a child within its parent's set of children.
+	 */
+	public static final String CHILD_KEY_LABEL = "spring.io/child-key";
+
+	/**
+	 * The key of the only child from a plain (not keyed) {@link ChildProvider}.
+	 */
+	public static final String DEFAULT_KEY = "default";
+
+	public static final String DEFAULT_MANAGED_BY = "spring-controller";
+
+	private static final int DEFAULT_PAGE_SIZE = 500;
+
 	private GenericKubernetesApi<T, L> children;
 
 	private ChildProvider<P, T> provider;
 
+	private final String managedBy;
+
+	private final int pageSize;
+
+	private ChildSweeper<P, T, L> sweeper;
+
 	public ChildReconciler(GenericKubernetesApi<T, L> api, ChildProvider<P, T> provider) {
+		this(api, provider, DEFAULT_MANAGED_BY, DEFAULT_PAGE_SIZE);
+	}
+
+	/**
+	 * @param managedBy the value of the {@link #MANAGED_BY_LABEL} on children
+	 * @param pageSize the maximum number of children fetched in one list request
+	 */
+	public ChildReconciler(GenericKubernetesApi<T, L> api, ChildProvider<P, T> provider, String managedBy,
+			int pageSize) {
 		this.children = api;
 		this.provider = provider;
+		this.managedBy = managedBy;
+		this.pageSize = pageSize;
+	}
+
+	/**
+	 * @param sweeper used to delete unwanted children in the background instead of
+	 * blocking the reconcile
+	 */
+	public void setSweeper(ChildSweeper<P, T, L> sweeper) {
+		this.sweeper = sweeper;
 	}
 
 	@Override
 	public Result reconcile(P parent) {
+		ReconcileEvent event = ReconcileEvent.start(ReconcileEvent.CHILD, ReconcileEvent.key(parent));
+		event.setKind(parent.getKind());
+		try {
+			return reconcile(parent, event);
+		}
+		catch (RuntimeException e) {
+			event.fail(e);
+			throw e;
+		}
+	}
+
+	private Result reconcile(P parent, ReconcileEvent event) {
 		log.info("Reconciling: " + parent.getKind() + " - " + parent.getMetadata().getName());
-		List<T> items = new ArrayList<>();
-		for (KubernetesObject item : children.list(parent.getMetadata().getNamespace()).getObject().getItems()) {
-			if (item.getMetadata().getOwnerReferences() != null) {
-				for (V1OwnerReference owner : item.getMetadata().getOwnerReferences()) {
-					if (parent.getMetadata().getUid().equals(owner.getUid())) {
-						@SuppressWarnings("unchecked")
-						T thing = (T) item;
-						items.add(thing);
-						break;
-					}
-				}
-			}
+		Map<String, T> desired;
+		try {
+			desired = desiredChildren(parent);
+		}
+		catch (RequeueException e) {
+			log.info("Requeue " + parent.getMetadata().getName() + " after " + e.getRequeueAfter() + ": "
+					+ e.getMessage());
+			event.finish(ReconcileEvent.REQUEUE, e.getRequeueAfter());
+			return new Result(true, e.getRequeueAfter());
 		}
+		event.setChildren(desired.size());
 
-		T actual = null;
-		if (items.size() == 1) {
-			actual = items.get(0);
+		// Match existing children to desired ones by key (falling back to the name for
+		// children created before they had a key) and clean up the rest in the background
+		Map<String, String> keysByName = new HashMap<>();
+		for (Map.Entry<String, T> entry : desired.entrySet()) {
+			setOwner(entry.getValue(), parent);
+			entry.getValue().getMetadata().putLabelsItem(CHILD_KEY_LABEL, entry.getKey());
+			keysByName.put(entry.getValue().getMetadata().getName(), entry.getKey());
 		}
-		else {
-			for (T item : items) {
-				log.info("Deleting " + item);
-				children.delete(item.getMetadata().getNamespace(), item.getMetadata().getName());
+		Map<String, T> actuals = new HashMap<>();
+		for (T item : findChildren(parent)) {
+			String key = keyOf(item, keysByName);
+			T target = key == null ? null : desired.get(key);
+			if (target != null && !actuals.containsKey(key)
+					&& item.getMetadata().getName().equals(target.getMetadata().getName())) {
+				actuals.put(key, item);
+			}
+			else {
+				delete(item);
 			}
 		}
 
-		T desired = this.provider.desired(parent);
-		if (desired == null) {
-			if (actual != null) {
-				log.info("Deleting " + actual);
-				children.delete(actual.getMetadata().getNamespace(), actual.getMetadata().getName());
-			}
-			return new Result(false);
+		for (Map.Entry<String, T> entry : desired.entrySet()) {
+			reconcileChild(parent, actuals.get(entry.getKey()), entry.getValue());
 		}
 
-		setOwner(desired, parent);
+		Duration requeueAfter = this.provider.requeueAfter(parent);
+		event.finish(ReconcileEvent.SUCCESS, requeueAfter);
+		return requeueAfter == null ? new Result(false) : new Result(true, requeueAfter);
+
+	}
+
+	private Map<String, T> desiredChildren(P parent) {
+		Map<String, T> desired = this.provider.desiredChildren(parent);
+		return desired == null ? Collections.emptyMap() : desired;
+	}
+
+	@Nullable
+	private static String keyOf(KubernetesObject item, Map<String, String> keysByName) {
+		Map<String, String> labels = item.getMetadata().getLabels();
+		String key = labels == null ? null : labels.get(CHILD_KEY_LABEL);
+		return key != null ? key : keysByName.get(item.getMetadata().getName());
+	}
+
+	private void reconcileChild(P parent, @Nullable T actual, T desired) {
+		boolean created = false;
 		if (actual == null) {
 			try {
 				actual = children.create(desired).throwsApiException().getObject();
+				created = true;
 				log.debug("Created: \n" + actual);
 			}
 			catch (ApiException e) {
-				reflectStatusOnParent(parent, actual, e);
-				throw new IllegalStateException(e);
+				actual = adopt(parent, desired, e);
+				if (actual == null) {
+					reflectStatusOnParent(parent, actual, e);
+					throw new IllegalStateException(e);
+				}
 			}
 		}
-		else {
+		if (!created) {
 
 			harmonizeImmutableFields(actual, desired);
 			if (!semanticEquals(actual, desired)) {
@@ -108,12 +204,100 @@ public class ChildReconciler<P extends KubernetesObject, T extends KubernetesObj
 		}
 
 		reflectStatusOnParent(parent, actual, null);
+	}
+
+	private void delete(T child) {
+		if (sweeper != null) {
+			sweeper.delete(child);
+			return;
+		}
+		log.info("Deleting " + child);
+		deleteByUid(children, child);
+	}
+
+	/**
+	 * Delete the child only if it is still the same object, so a delete that waited in a
+	 * queue never removes a child recreated with the same name. A conflict (the UID no
+	 * longer matches) or a 404 means the original has already gone.
+	 */
+	static <T extends KubernetesObject> void deleteByUid(GenericKubernetesApi<T, ?> children, T child) {
+		V1ObjectMeta metadata = child.getMetadata();
+		V1DeleteOptions options = new V1DeleteOptions()
+				.preconditions(new V1Preconditions().uid(metadata.getUid()));
+		KubernetesApiResponse<T> response = children.delete(metadata.getNamespace(), metadata.getName(), options);
+		int code = response.getHttpStatusCode();
+		if (!response.isSuccess() && code != 404 && code != 409) {
+			log.warn("Cannot delete " + metadata.getNamespace() + "/" + metadata.getName() + ": "
+					+ (response.getStatus() == null ? code : response.getStatus().getMessage()));
+		}
+	}
+
+	/**
+	 * Page through the children carrying the labels for this parent, keeping only the
+	 * ones it really owns, so the list never has to hold every object in the namespace.
+	 */
+	private List<T> findChildren(P parent) {
+		List<T> items = new ArrayList<>();
+		ListOptions options = new ListOptions();
+		options.setLabelSelector(MANAGED_BY_LABEL + "=" + managedBy + "," + OWNER_UID_LABEL + "="
+				+ parent.getMetadata().getUid());
+		options.setLimit(pageSize);
+		String next = null;
+		do {
+			options.setContinue(next);
+			L page;
+			try {
+				page = children.list(parent.getMetadata().getNamespace(), options).throwsApiException().getObject();
+			}
+			catch (ApiException e) {
+				throw new IllegalStateException(e);
+			}
+			for (KubernetesObject item : page.getItems()) {
+				if (isOwnedBy(item, parent)) {
+					@SuppressWarnings("unchecked")
+					T thing = (T) item;
+					items.add(thing);
+				}
+			}
+			next = page.getMetadata() == null ? null : page.getMetadata().getContinue();
+		}
+		while (next != null && !next.isEmpty());
+		return items;
+	}
 
-		return new Result(false);
+	/**
+	 * A child created before it was labelled is invisible to the label selector, so
+	 * creating it again conflicts. If the existing object belongs to this parent, carry
+	 * on with it, and the update adds the labels.
+	 */
+	@Nullable
+	private T adopt(P parent, T desired, ApiException e) {
+		if (e.getCode() != 409) {
+			return null;
+		}
+		KubernetesApiResponse<T> existing = children.get(desired.getMetadata().getNamespace(),
+				desired.getMetadata().getName());
+		if (existing.isSuccess() && isOwnedBy(existing.getObject(), parent)) {
+			log.info("Adopting " + desired.getMetadata().getName());
+			return existing.getObject();
+		}
+		return null;
+	}
 
+	private static boolean isOwnedBy(KubernetesObject item, KubernetesObject parent) {
+		if (item.getMetadata().getOwnerReferences() != null) {
+			for (V1OwnerReference owner : item.getMetadata().getOwnerReferences()) {
+				if (parent.getMetadata().getUid().equals(owner.getUid())) {
+					return true;
+				}
+			}
+		}
+		return false;
 	}
 
 	private void setOwner(T child, P owner) {
+		child.getMetadata().putLabelsItem(MANAGED_BY_LABEL, managedBy);
+		child.getMetadata().putLabelsItem(OWNER_UID_LABEL, owner.getMetadata().getUid());
 		var v1OwnerReference = new V1OwnerReference();
 		v1OwnerReference.setKind(owner.getKind());
 		v1OwnerReference.setName(owner.getMetadata().getName());
@@ -0,0 +1,185 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples.reconciler;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import io.kubernetes.client.common.KubernetesListObject;
+import io.kubernetes.client.common.KubernetesObject;
+import io.kubernetes.client.informer.SharedIndexInformer;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1OwnerReference;
+import io.kubernetes.client.util.generic.GenericKubernetesApi;
+import io.kubernetes.client.util.generic.options.ListOptions;
+
+/**
+ * Deletes children in the background, so that reconciles never wait for cleanup.
+ * Children can be handed over one at a time with {@link #delete(KubernetesObject)}, and
+ * a periodic {@link #sweep()} finds managed children whose parent is no longer in the
+ * parent informer cache. Deletes run on a small, bounded pool; if it is full the child
+ * is left for the next sweep.
+ *
+ */
+public class ChildSweeper<P extends KubernetesObject, T extends KubernetesObject, L extends KubernetesListObject> {
+
+	private static Log log = LogFactory.getLog(ChildSweeper.class);
+
+	private static final int QUEUE_CAPACITY = 1000;
+
+	private final SharedIndexInformer<P> parentInformer;
+
+	private final GenericKubernetesApi<T, L> children;
+
+	private final String managedBy;
+
+	private final int pageSize;
+
+	private final Duration gracePeriod;
+
+	private final ThreadPoolExecutor deletes;
+
+	private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+	private ScheduledExecutorService scheduler;
+
+	/**
+	 * @param concurrency the maximum number of deletes in flight
+	 * @param gracePeriod children younger than this are never swept, in case their
+	 * parent has not reached the informer cache yet
+	 */
+	public ChildSweeper(SharedIndexInformer<P> parentInformer, GenericKubernetesApi<T, L> children, String managedBy,
+			int pageSize, int concurrency, Duration gracePeriod) {
+		this.parentInformer = parentInformer;
+		this.children = children;
+		this.managedBy = managedBy;
+		this.pageSize = pageSize;
+		this.gracePeriod = gracePeriod;
+		this.deletes = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<>(QUEUE_CAPACITY));
+	}
+
+	public synchronized void start(Duration interval) {
+		if (scheduler != null || interval.isZero()) {
+			return;
+		}
+		scheduler = Executors.newSingleThreadScheduledExecutor();
+		scheduler.scheduleWithFixedDelay(this::sweep, interval.toMillis(), interval.toMillis(),
+				TimeUnit.MILLISECONDS);
+	}
+
+	public synchronized void stop() {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
+		deletes.shutdownNow();
+	}
+
+	public void delete(T child) {
+		V1ObjectMeta metadata = child.getMetadata();
+		String key = metadata.getNamespace() + "/" + metadata.getName();
+		if (!pending.add(key)) {
+			return;
+		}
+		try {
+			deletes.execute(() -> {
+				try {
+					log.info("Deleting " + key);
+					ChildReconciler.deleteByUid(children, child);
+				}
+				finally {
+					pending.remove(key);
+				}
+			});
+		}
+		catch (RejectedExecutionException e) {
+			pending.remove(key);
+			log.debug("Delete queue full, leaving " + key + " for the next sweep");
+		}
+	}
+
+	public void sweep() {
+		try {
+			if (!parentInformer.hasSynced()) {
+				return;
+			}
+			Set<String> parents = new HashSet<>();
+			for (P parent : parentInformer.getIndexer().list()) {
+				parents.add(parent.getMetadata().getUid());
+			}
+			OffsetDateTime cutoff = OffsetDateTime.now().minus(gracePeriod);
+			ListOptions options = new ListOptions();
+			options.setLabelSelector(ChildReconciler.MANAGED_BY_LABEL + "=" + managedBy);
+			options.setLimit(pageSize);
+			String next = null;
+			int count = 0;
+			do {
+				options.setContinue(next);
+				L page = children.list(options).throwsApiException().getObject();
+				for (KubernetesObject item : page.getItems()) {
+					if (isOrphan(item, parents, cutoff)) {
+						@SuppressWarnings("unchecked")
+						T child = (T) item;
+						delete(child);
+						count++;
+					}
+				}
+				next = page.getMetadata() == null ? null : page.getMetadata().getContinue();
+			}
+			while (next != null && !next.isEmpty());
+			if (count > 0) {
+				log.info("Swept " + count + " orphaned children");
+			}
+		}
+		catch (ApiException | RuntimeException e) {
+			log.warn("Sweep failed", e);
+		}
+	}
+
+	private static boolean isOrphan(KubernetesObject item, Set<String> parents, OffsetDateTime cutoff) {
+		V1ObjectMeta metadata = item.getMetadata();
+		if (metadata.getDeletionTimestamp() != null || metadata.getCreationTimestamp() == null
+				|| metadata.getCreationTimestamp().isAfter(cutoff)) {
+			return false;
+		}
+		Map<String, String> labels = metadata.getLabels();
+		String owner = labels == null ? null : labels.get(ChildReconciler.OWNER_UID_LABEL);
+		if (owner == null && metadata.getOwnerReferences() != null) {
+			for (V1OwnerReference reference : metadata.getOwnerReferences()) {
+				if (Boolean.TRUE.equals(reference.getController())) {
+					owner = reference.getUid();
+				}
+			}
+		}
+		return owner != null && !parents.contains(owner);
+	}
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples.reconciler;
+
+import java.util.Map;
+
+import io.kubernetes.client.common.KubernetesObject;
+
+/**
+ * A {@link ChildProvider} for parents with several children. Each child has a stable key
+ * (kept in the {@link ChildReconciler#CHILD_KEY_LABEL} label), and the reconciler
+ * matches existing children to desired ones by key, so only the children that changed
+ * are created, updated or deleted.
+ *
+ */
+public interface KeyedChildProvider<P extends KubernetesObject, T extends KubernetesObject>
+		extends ChildProvider<P, T> {
+
+	@Override
+	Map<String, T> desiredChildren(P parent);
+
+	/**
+	 * @return the child with the {@link ChildReconciler#DEFAULT_KEY}, if there is one
+	 */
+	@Override
+	default T desired(P parent) {
+		return desiredChildren(parent).get(ChildReconciler.DEFAULT_KEY);
+	}
+
+}
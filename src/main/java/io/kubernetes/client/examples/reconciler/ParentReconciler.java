@@ -17,11 +17,14 @@ package io.kubernetes.client.examples.reconciler;
 
 import java.lang.reflect.Method;
 import java.util.Collections;
+import java.util.Objects;
+import java.util.function.UnaryOperator;
 
 import javax.annotation.Nullable;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.BeanUtils;
 import org.springframework.util.ReflectionUtils;
 
 import io.kubernetes.client.apimachinery.GroupVersion;
@@ -52,6 +55,8 @@ public class ParentReconciler<T extends KubernetesObject, L extends KubernetesLi
 
 	private String pluralName;
 
+	private UnaryOperator<T> overlay = ParentReconciler::reflectiveOverlay;
+
 	public ParentReconciler(SharedIndexInformer<T> parentInformer, ApiClient api, SubReconciler<?>... reconcilers) {
 		this(null, parentInformer, api, reconcilers);
 	}
@@ -66,22 +71,52 @@ public class ParentReconciler<T extends KubernetesObject, L extends KubernetesLi
 		this.reconcilers = array;
 	}
 
+	/**
+	 * @param overlay makes the object handed to the sub-reconcilers from the one in the
+	 * informer cache: a shallow copy with its own copy of the status, so that status
+	 * changes never leak into the cache. The default uses reflection.
+	 */
+	public void setStatusOverlay(UnaryOperator<T> overlay) {
+		this.overlay = overlay;
+	}
+
 	@Override
 	public Result reconcile(Request request) {
+		String key = request.getNamespace() == null ? request.getName()
+				: request.getNamespace() + "/" + request.getName();
+		ReconcileEvent event = ReconcileEvent.start(ReconcileEvent.PARENT, key);
+		try {
+			Result result = reconcile(request, event);
+			event.finish(ReconcileEvent.SUCCESS, result.getRequeueAfter());
+			return result;
+		}
+		catch (RuntimeException e) {
+			event.fail(e);
+			throw e;
+		}
+	}
+
+	private Result reconcile(Request request, ReconcileEvent event) {
 		Lister<T> parentLister = new Lister<>(parentInformer.getIndexer(), request.getNamespace());
-		T parent = parentLister.get(request.getName());
+		T cached = parentLister.get(request.getName());
 
 		Result result = new Result(false);
-		if (parent != null) {
+		if (cached != null) {
 
-			if (parent.getMetadata().getDeletionTimestamp() != null) {
+			event.setKind(cached.getKind());
+			if (cached.getMetadata().getDeletionTimestamp() != null) {
 				return result;
 			}
 
+			T parent = overlay.apply(cached);
 			for (SubReconciler<T> subReconciler : reconcilers) {
 				result = aggregate(subReconciler.reconcile(parent), result);
 			}
 
+			if (Objects.equals(findStatus(cached), findStatus(parent))) {
+				return result;
+			}
+
 			GroupVersion gv = GroupVersion.parse(parent);
 			String pluralName = findPluralName(parent);
 			@SuppressWarnings("unchecked")
@@ -89,8 +124,8 @@ public class ParentReconciler<T extends KubernetesObject, L extends KubernetesLi
 			GenericKubernetesApi<T, ?> status = new GenericKubernetesApi<>(apiType, KubernetesListObject.class,
 					gv.getGroup(), gv.getVersion(), pluralName, this.api);
 
-			// TODO: make this conditional on the status having changed
 			KubernetesApiResponse<T> update = status.updateStatus(parent, this::extractStatus);
+			event.setStatusUpdated(update.isSuccess());
 			if (!update.isSuccess()) {
 				log.warn("Cannot update parent");
 			}
@@ -108,20 +143,39 @@ public class ParentReconciler<T extends KubernetesObject, L extends KubernetesLi
 	}
 
 	private Object extractStatus(KubernetesObject parent) {
+		Object status = findStatus(parent);
+		return status != null ? status : Collections.emptyMap();
+	}
+
+	@Nullable
+	private static Object findStatus(Object parent) {
 		Method method = ReflectionUtils.findMethod(parent.getClass(), "getStatus");
-		if (method != null) {
-			Object status = ReflectionUtils.invokeMethod(method, parent);
-			if (status != null) {
-				return status;
+		return method == null ? null : ReflectionUtils.invokeMethod(method, parent);
+	}
+
+	private static <T> T reflectiveOverlay(T cached) {
+		T parent = shallowCopy(cached);
+		Object status = findStatus(cached);
+		if (status != null) {
+			Method setter = ReflectionUtils.findMethod(parent.getClass(), "setStatus", status.getClass());
+			if (setter != null) {
+				ReflectionUtils.invokeMethod(setter, parent, shallowCopy(status));
 			}
 		}
-		return Collections.emptyMap();
+		return parent;
+	}
+
+	private static <T> T shallowCopy(T source) {
+		@SuppressWarnings("unchecked")
+		T copy = (T) BeanUtils.instantiateClass(source.getClass());
+		ReflectionUtils.shallowCopyFieldState(source, copy);
+		return copy;
 	}
 
 	private Result aggregate(Result result, Result aggregate) {
-		if (aggregate.getRequeueAfter() != null
-				&& (aggregate.getRequeueAfter().isZero() || result.getRequeueAfter() != null
-						&& aggregate.getRequeueAfter().compareTo(result.getRequeueAfter()) > 0)) {
+		if (result.getRequeueAfter() != null && (aggregate.getRequeueAfter() == null
+				|| aggregate.getRequeueAfter().isZero()
+				|| aggregate.getRequeueAfter().compareTo(result.getRequeueAfter()) > 0)) {
 			aggregate.setRequeueAfter(result.getRequeueAfter());
 		}
 		if (result.isRequeue()) {
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples.reconciler;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+
+import io.kubernetes.client.common.KubernetesObject;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event for one reconcile of a parent resource (by the
+ * {@link ParentReconciler}) or of its children (by a {@link ChildReconciler}). Like all
+ * JFR events it costs next to nothing unless a recording is running.
+ *
+ */
+@Name("io.kubernetes.client.examples.Reconcile")
+@Label("Reconcile")
+@Category({ "Kubernetes", "Controller" })
+@Description("Reconcile of a parent resource or its children")
+@StackTrace(false)
+public class ReconcileEvent extends Event {
+
+	public static final String PARENT = "parent";
+
+	public static final String CHILD = "child";
+
+	public static final String SUCCESS = "success";
+
+	public static final String REQUEUE = "requeue";
+
+	@Label("Phase")
+	private String phase;
+
+	@Label("Kind")
+	private String kind;
+
+	@Label("Key")
+	private String key;
+
+	@Label("Children")
+	@Description("Number of desired children")
+	private int children;
+
+	@Label("Status Updated")
+	private boolean statusUpdated;
+
+	@Label("Outcome")
+	@Description("success, requeue or the type of the exception thrown")
+	private String outcome;
+
+	@Label("Requeue After")
+	@Timespan(Timespan.MILLISECONDS)
+	private long requeueAfter;
+
+	static ReconcileEvent start(String phase, String key) {
+		ReconcileEvent event = new ReconcileEvent();
+		event.phase = phase;
+		event.key = key;
+		event.begin();
+		return event;
+	}
+
+	static String key(KubernetesObject object) {
+		String namespace = object.getMetadata().getNamespace();
+		return namespace == null ? object.getMetadata().getName() : namespace + "/" + object.getMetadata().getName();
+	}
+
+	void setKind(String kind) {
+		this.kind = kind;
+	}
+
+	void setChildren(int children) {
+		this.children = children;
+	}
+
+	void setStatusUpdated(boolean statusUpdated) {
+		this.statusUpdated = statusUpdated;
+	}
+
+	void finish(String outcome, @Nullable Duration requeueAfter) {
+		end();
+		if (shouldCommit()) {
+			this.outcome = outcome;
+			this.requeueAfter = requeueAfter == null ? 0 : TimeUnit.NANOSECONDS.toMillis(requeueAfter.toNanos());
+			commit();
+		}
+	}
+
+	void fail(Throwable error) {
+		finish(error.getClass().getSimpleName(), null);
+	}
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples.reconciler;
+
+import java.time.Duration;
+
+import javax.annotation.Nullable;
+
+/**
+ * Thrown by a {@link ChildProvider} to abandon the current reconcile without touching
+ * any children. The parent is requeued after {@link #getRequeueAfter()}, or with the
+ * work queue's rate limited backoff if that is null.
+ *
+ */
+public class RequeueException extends RuntimeException {
+
+	private final Duration requeueAfter;
+
+	public RequeueException(String message, @Nullable Duration requeueAfter) {
+		super(message);
+		this.requeueAfter = requeueAfter;
+	}
+
+	@Nullable
+	public Duration getRequeueAfter() {
+		return requeueAfter;
+	}
+
+}
@@ -0,0 +1,81 @@
+/*
+* Copyright 2019-2022 the original author or authors.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      https://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package io.kubernetes.client.examples;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import io.kubernetes.client.openapi.JSON;
+import io.kubernetes.client.openapi.models.V1ConfigMap;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.proto.V1;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rough comparison of JSON and protobuf for a large ConfigMap. Run with
+ * <code>-Dbenchmark=true</code>.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ConfigMapProtosBenchmarkTests {
+
+	private static final int ITERATIONS = 200;
+
+	@Test
+	void jsonVersusProtobuf() throws Exception {
+		V1ConfigMap map = configMap(10000);
+		JSON json = new JSON();
+		byte[] jsonBytes = json.serialize(map).getBytes(StandardCharsets.UTF_8);
+		byte[] protoBytes = ConfigMapProtos.toProto(map).toByteArray();
+
+		assertThat(ConfigMapProtos.fromProto(V1.ConfigMap.parseFrom(protoBytes)).getData()).isEqualTo(map.getData());
+
+		long jsonNanos = 0;
+		long protoNanos = 0;
+		for (int i = 0; i < ITERATIONS; i++) {
+			long start = System.nanoTime();
+			json.deserialize(new String(jsonBytes, StandardCharsets.UTF_8), V1ConfigMap.class);
+			jsonNanos += System.nanoTime() - start;
+			start = System.nanoTime();
+			ConfigMapProtos.fromProto(V1.ConfigMap.parseFrom(protoBytes));
+			protoNanos += System.nanoTime() - start;
+		}
+		report("JSON", jsonBytes.length, jsonNanos);
+		report("Protobuf", protoBytes.length, protoNanos);
+	}
+
+	private static void report(String format, int bytes, long nanos) {
+		System.out.println(format + ": " + bytes + " bytes, " + nanos / ITERATIONS / 1000 + "us per decode");
+	}
+
+	private static V1ConfigMap configMap(int entries) {
+		Map<String, String> data = new HashMap<>();
+		for (int i = 0; i < entries; i++) {
+			data.put("app.property." + i, "value-" + i);
+		}
+		V1ConfigMap map = new V1ConfigMap();
+		map.setApiVersion("v1");
+		map.setKind("ConfigMap");
+		map.setMetadata(new V1ObjectMeta().name("benchmark").namespace("default"));
+		map.setData(data);
+		return map;
+	}
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConfigMapReaderTests {
+
+	@Test
+	void specialCharactersInKeys() {
+		Map<String, String> data = new TreeMap<>();
+		data.put("a=b", "1");
+		data.put("c:d", "2");
+		data.put("#not.a.comment", "3");
+		data.put("!not.a.comment", "4");
+		data.put(" leading.space", "5");
+		data.put("inner space", "6");
+		data.put("back\\slash", "7");
+		data.put("ünïcødé.ключ.🚀", "8");
+		data.put("", "9");
+		assertThat(ConfigMapReader.decode(ConfigMapReader.encode(data))).isEqualTo(data);
+	}
+
+	@Test
+	void specialCharactersInValues() {
+		Map<String, String> data = new TreeMap<>();
+		data.put("separators", "x=y:z");
+		data.put("hash", "#not a comment");
+		data.put("bang", "!not a comment");
+		data.put("leading", "  leading spaces");
+		data.put("trailing", "trailing spaces  ");
+		data.put("backslashes", "C:\\path\\to\\file\\");
+		data.put("controls", "multi\nline\r\n\ttab\f");
+		data.put("unicode", "ünïcødé значение 🚀");
+		data.put("empty", "");
+		assertThat(ConfigMapReader.decode(ConfigMapReader.encode(data))).isEqualTo(data);
+	}
+
+	@Test
+	void nullValueIsEmpty() {
+		Map<String, String> data = new HashMap<>();
+		data.put("missing", null);
+		assertThat(ConfigMapReader.decode(ConfigMapReader.encode(data))).containsEntry("missing", "");
+	}
+
+	@Test
+	void sameDataSameBytes() {
+		Map<String, String> one = new HashMap<>(Map.of("foo", "bar", "spam", "bucket"));
+		Map<String, String> two = new TreeMap<>(Map.of("spam", "bucket", "foo", "bar"));
+		assertThat(ConfigMapReader.encode(one)).isEqualTo(ConfigMapReader.encode(two));
+	}
+
+}
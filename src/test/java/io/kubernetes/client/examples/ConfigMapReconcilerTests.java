@@ -0,0 +1,110 @@
+/*
+* Copyright 2019-2022 the original author or authors.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      https://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package io.kubernetes.client.examples;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.kubernetes.client.openapi.models.V1ConfigMap;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConfigMapReconcilerTests {
+
+	@Test
+	void smallEnvironmentIsOneShard() {
+		Map<String, String> data = Map.of("foo", "bar", "spam", "bucket");
+		List<Map<String, String>> shards = ConfigMapReconciler.shard(data, 1024);
+		assertThat(shards).hasSize(1);
+		assertThat(shards.get(0)).isEqualTo(data);
+	}
+
+	@Test
+	void largeEnvironmentIsSplitIntoBoundedShards() {
+		Map<String, String> data = data(1000, 100);
+		List<Map<String, String>> shards = ConfigMapReconciler.shard(data, 16 * 1024);
+		assertThat(Integer.bitCount(shards.size())).isEqualTo(1);
+		assertThat(shards.size()).isGreaterThan(4);
+		Map<String, String> merged = new HashMap<>();
+		for (Map<String, String> shard : shards) {
+			assertThat(shard.values().stream().mapToInt(String::length).sum()).isLessThan(16 * 1024);
+			merged.putAll(shard);
+		}
+		assertThat(merged).isEqualTo(data);
+	}
+
+	@Test
+	void changingOneValueOnlyChangesOneShard() {
+		Map<String, String> data = data(1000, 100);
+		List<Map<String, String>> before = ConfigMapReconciler.shard(data, 16 * 1024);
+		data.put("key.500", "changed");
+		List<Map<String, String>> after = ConfigMapReconciler.shard(data, 16 * 1024);
+		assertThat(after).hasSameSizeAs(before);
+		int changed = 0;
+		for (int i = 0; i < before.size(); i++) {
+			if (!before.get(i).equals(after.get(i))) {
+				changed++;
+			}
+		}
+		assertThat(changed).isEqualTo(1);
+	}
+
+	@Test
+	void editedDataIsNotEqualEvenIfAnnotationsMatch() {
+		ConfigMapReconciler reconciler = new ConfigMapReconciler(null, 1024);
+		V1ConfigMap desired = configMap(Map.of("foo", "bar", "spam", "bucket"), null);
+		assertThat(reconciler.semanticEquals(configMap(Map.of("foo", "bar", "spam", "bucket"), null), desired))
+				.isTrue();
+		assertThat(reconciler.semanticEquals(configMap(Map.of("foo", "edited", "spam", "bucket"), null), desired))
+				.isFalse();
+		assertThat(reconciler.semanticEquals(configMap(Map.of("foo", "bar"), null), desired)).isFalse();
+	}
+
+	@Test
+	void editedBinaryDataIsNotEqualEvenIfAnnotationsMatch() {
+		ConfigMapReconciler reconciler = new ConfigMapReconciler(null, 1024);
+		V1ConfigMap desired = configMap(null, ConfigMapReader.encode(Map.of("foo", "bar", "spam", "bucket")));
+		assertThat(reconciler.semanticEquals(
+				configMap(null, ConfigMapReader.encode(Map.of("foo", "bar", "spam", "bucket"))), desired)).isTrue();
+		assertThat(reconciler.semanticEquals(configMap(null, ConfigMapReader.encode(Map.of("foo", "bar"))), desired))
+				.isFalse();
+		assertThat(reconciler.semanticEquals(configMap(null, null), desired)).isFalse();
+	}
+
+	private static V1ConfigMap configMap(Map<String, String> data, byte[] gzip) {
+		V1ConfigMap map = new V1ConfigMap().metadata(new V1ObjectMeta().name("test")
+				.putAnnotationsItem(ConfigMapReconciler.HASH_ANNOTATION, "hash")
+				.putAnnotationsItem(ConfigMapReconciler.SHARDS_ANNOTATION, "1"));
+		map.setData(data);
+		if (gzip != null) {
+			map.setBinaryData(Map.of(ConfigMapReader.GZIP_ENTRY, gzip));
+		}
+		return map;
+	}
+
+	private static Map<String, String> data(int entries, int valueLength) {
+		Map<String, String> data = new HashMap<>();
+		for (int i = 0; i < entries; i++) {
+			data.put("key." + i, "x".repeat(valueLength));
+		}
+		return data;
+	}
+
+}
@@ -0,0 +1,102 @@
+/*
+* Copyright 2019-2022 the original author or authors.
+*
+* Licensed under the Apache License, Version 2.0 (the "License");
+* you may not use this file except in compliance with the License.
+* You may obtain a copy of the License at
+*
+*      https://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing, software
+* distributed under the License is distributed on an "AS IS" BASIS,
+* WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+* See the License for the specific language governing permissions and
+* limitations under the License.
+*/
+package io.kubernetes.client.examples;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+
+import io.kubernetes.client.examples.ConfigServerCircuitBreakers.State;
+import io.kubernetes.client.examples.reconciler.RequeueException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ConfigServerCircuitBreakersTests {
+
+	private static final String URL = "http://configserver:8888/app/default";
+
+	private final MutableClock clock = new MutableClock();
+
+	private final ControllerProperties.ConfigServer config = new ControllerProperties.ConfigServer();
+
+	private final ConfigServerCircuitBreakers breakers = new ConfigServerCircuitBreakers(config,
+			new SimpleMeterRegistry(), clock);
+
+	@Test
+	void opensAfterThresholdAndFailsFast() {
+		config.setFailureThreshold(2);
+		fail();
+		fail();
+		assertThat(breakers.getState(URL)).isEqualTo(State.OPEN);
+		assertThatThrownBy(() -> breakers.execute(URL, () -> "ok")).isInstanceOf(RequeueException.class)
+				.extracting(e -> ((RequeueException) e).getRequeueAfter()).isEqualTo(config.getOpenDuration());
+	}
+
+	@Test
+	void closesAfterSuccessfulTrial() {
+		config.setFailureThreshold(1);
+		fail();
+		clock.advance(config.getOpenDuration());
+		assertThat(breakers.execute(URL, () -> "ok")).isEqualTo("ok");
+		assertThat(breakers.getState(URL)).isEqualTo(State.CLOSED);
+	}
+
+	@Test
+	void hostsAreIndependent() {
+		config.setFailureThreshold(1);
+		fail();
+		assertThat(breakers.execute("http://other:8888/app/default", () -> "ok")).isEqualTo("ok");
+	}
+
+	private void fail() {
+		assertThatThrownBy(() -> breakers.execute(URL, () -> {
+			throw new ResourceAccessException("down");
+		})).isInstanceOf(ResourceAccessException.class);
+	}
+
+	static class MutableClock extends Clock {
+
+		private Instant now = Instant.EPOCH;
+
+		void advance(Duration duration) {
+			now = now.plus(duration);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return now;
+		}
+
+	}
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples;
+
+import java.time.Duration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class EnvironmentFetcherTests {
+
+	private static final String URL = "http://configserver:8888/app/default";
+
+	private static final String BODY = "{\"name\":\"app\",\"propertySources\":[{\"name\":\"one\","
+			+ "\"source\":{\"a\":\"1\",\"b\":\"2\"}},{\"name\":\"two\",\"source\":{\"a\":\"0\",\"c\":\"3\"}}]}";
+
+	private final RestTemplate rest = new RestTemplate();
+
+	private final MockRestServiceServer server = MockRestServiceServer.bindTo(rest).build();
+
+	private final EnvironmentFetcher fetcher = new EnvironmentFetcher(rest,
+			new ObjectMapper().registerModule(
+					new SimpleModule().addDeserializer(Environment.class, new EnvironmentDeserializer())),
+			new ConfigServerCircuitBreakers(new ControllerProperties.ConfigServer(), new SimpleMeterRegistry()),
+			Duration.ZERO);
+
+	@Test
+	void withinLimits() {
+		fetcher.setLimits(BODY.length(), 4);
+		respond();
+		assertThat(fetcher.fetch(URL).getData()).containsEntry("a", "1").containsEntry("c", "3").hasSize(3);
+	}
+
+	@Test
+	void tooManyBytes() {
+		fetcher.setLimits(BODY.length() - 1, 0);
+		respond();
+		assertThatThrownBy(() -> fetcher.fetch(URL)).isInstanceOf(EnvironmentTooLargeException.class);
+	}
+
+	@Test
+	void tooManyProperties() {
+		fetcher.setLimits(0, 3);
+		respond();
+		assertThatThrownBy(() -> fetcher.fetch(URL)).isInstanceOf(EnvironmentTooLargeException.class)
+				.hasMessageContaining("3 properties");
+	}
+
+	@Test
+	void errorDoesNotLeaveTheBatchBehind() {
+		server.expect(requestTo(URL)).andRespond(request -> {
+			throw new StackOverflowError();
+		});
+		respond();
+		assertThatThrownBy(() -> fetcher.fetch(URL)).isInstanceOf(StackOverflowError.class);
+		assertThat(fetcher.fetch(URL).getData()).hasSize(3);
+	}
+
+	@Test
+	void forgetDropsTheFingerprint() {
+		respond();
+		fetcher.fetch(URL);
+		assertThat(fetcher.getFingerprints()).containsKey(ConfigServerUrls.normalize(URL));
+		fetcher.forget(URL);
+		assertThat(fetcher.getFingerprints()).isEmpty();
+	}
+
+	private void respond() {
+		server.expect(requestTo(URL)).andRespond(withSuccess(BODY, MediaType.APPLICATION_JSON));
+	}
+
+}
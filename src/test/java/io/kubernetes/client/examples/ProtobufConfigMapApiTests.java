@@ -0,0 +1,95 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.models.V1ConfigMap;
+import io.kubernetes.client.proto.Meta;
+import io.kubernetes.client.proto.Runtime;
+import io.kubernetes.client.util.generic.KubernetesApiResponse;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProtobufConfigMapApiTests {
+
+	private static final byte[] MAGIC = { 0x6b, 0x38, 0x73, 0x00 };
+
+	@Test
+	void deleteWithSuccessStatus() {
+		Meta.Status status = Meta.Status.newBuilder().setStatus("Success").build();
+		KubernetesApiResponse<V1ConfigMap> response = api(200, protobuf(status)).delete("default", "test");
+		assertThat(response.isSuccess()).isTrue();
+		assertThat(response.getHttpStatusCode()).isEqualTo(200);
+		assertThat(response.getStatus().getCode()).isNull();
+		assertThat(response.getStatus().getStatus()).isEqualTo("Success");
+	}
+
+	@Test
+	void deleteWithFailureStatus() {
+		Meta.Status status = Meta.Status.newBuilder().setStatus("Failure").setCode(404).setReason("NotFound")
+				.build();
+		KubernetesApiResponse<V1ConfigMap> response = api(404, protobuf(status)).delete("default", "test");
+		assertThat(response.isSuccess()).isFalse();
+		assertThat(response.getHttpStatusCode()).isEqualTo(404);
+		assertThat(response.getStatus().getReason()).isEqualTo("NotFound");
+	}
+
+	@Test
+	void errorBodyThatIsNotProtobuf() {
+		byte[] body = "{\"kind\":\"Status\",\"code\":403}".getBytes(StandardCharsets.UTF_8);
+		KubernetesApiResponse<V1ConfigMap> response = api(403, body).delete("default", "test");
+		assertThat(response.isSuccess()).isFalse();
+		assertThat(response.getStatus().getStatus()).isEqualTo("Failure");
+	}
+
+	private static ProtobufConfigMapApi api(int code, byte[] body) {
+		ApiClient client = new ApiClient();
+		client.setHttpClient(new OkHttpClient.Builder()
+				.addInterceptor(chain -> new Response.Builder().request(chain.request()).protocol(Protocol.HTTP_1_1)
+						.code(code).message("")
+						.body(ResponseBody.create(body, MediaType.get("application/vnd.kubernetes.protobuf")))
+						.build())
+				.build());
+		return new ProtobufConfigMapApi(client);
+	}
+
+	private static byte[] protobuf(Meta.Status status) {
+		Runtime.Unknown unknown = Runtime.Unknown.newBuilder()
+				.setTypeMeta(Runtime.TypeMeta.newBuilder().setApiVersion("v1").setKind("Status"))
+				.setRaw(status.toByteString()).build();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try {
+			bytes.write(MAGIC);
+			unknown.writeTo(bytes);
+		}
+		catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		return bytes.toByteArray();
+	}
+
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples.controller;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AdaptiveConcurrencyLimiterTests {
+
+	private static final Duration THRESHOLD = Duration.ofMillis(20);
+
+	@Test
+	void tooManyRequestsHalvesTheLimit() throws Exception {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 16, THRESHOLD);
+		OkHttpClient client = client(limiter, respond(429, 0));
+		write(client);
+		assertThat(limiter.getLimit()).isEqualTo(4);
+		write(client);
+		assertThat(limiter.getLimit()).isEqualTo(2);
+		assertThat(limiter.getInFlight()).isZero();
+	}
+
+	@Test
+	void slowResponsesCutTheLimitByATenth() throws Exception {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 16, THRESHOLD);
+		OkHttpClient client = client(limiter, respond(200, THRESHOLD.toMillis() * 3));
+		write(client);
+		assertThat(limiter.getLimit()).isEqualTo(9);
+		write(client);
+		assertThat(limiter.getLimit()).isEqualTo(8);
+	}
+
+	@Test
+	void timeoutsCountAsSlowResponses() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 16, THRESHOLD);
+		OkHttpClient client = client(limiter, chain -> {
+			throw new SocketTimeoutException("timeout");
+		});
+		assertThatThrownBy(() -> write(client)).isInstanceOf(SocketTimeoutException.class);
+		assertThat(limiter.getLimit()).isEqualTo(9);
+		assertThat(limiter.getInFlight()).isZero();
+	}
+
+	@Test
+	void serverErrorsCutTheLimitByATenth() throws Exception {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 16, THRESHOLD);
+		write(client(limiter, respond(503, 0)));
+		assertThat(limiter.getLimit()).isEqualTo(9);
+	}
+
+	@Test
+	void writesWellBelowTheLimitLeaveItAlone() throws Exception {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 16, THRESHOLD);
+		OkHttpClient client = client(limiter, respond(200, 0));
+		for (int i = 0; i < 20; i++) {
+			write(client);
+		}
+		assertThat(limiter.getLimit()).isEqualTo(8);
+	}
+
+	@Test
+	void fastResponsesRaiseTheLimitUpToTheMaximum() throws Exception {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 2, THRESHOLD);
+		OkHttpClient client = client(limiter, respond(200, 0));
+		write(client);
+		assertThat(limiter.getLimit()).isEqualTo(2);
+		for (int i = 0; i < 10; i++) {
+			write(client);
+		}
+		assertThat(limiter.getLimit()).isEqualTo(2);
+	}
+
+	@Test
+	void readsAreNotLimited() throws Exception {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 16, THRESHOLD);
+		OkHttpClient client = client(limiter, respond(429, 0));
+		client.newCall(new Request.Builder().url("http://localhost/api/v1/configmaps").build()).execute().close();
+		assertThat(limiter.getLimit()).isEqualTo(8);
+	}
+
+	@Test
+	void writesWaitAtTheLimit() throws Exception {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, Duration.ofSeconds(10));
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger started = new AtomicInteger();
+		OkHttpClient client = client(limiter, chain -> {
+			started.incrementAndGet();
+			try {
+				release.await();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return response(chain, 200);
+		});
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		try {
+			Future<?> first = executor.submit(() -> {
+				write(client);
+				return null;
+			});
+			Future<?> second = executor.submit(() -> {
+				write(client);
+				return null;
+			});
+			Thread.sleep(200);
+			assertThat(started).hasValue(1);
+			assertThat(limiter.getInFlight()).isEqualTo(1);
+			release.countDown();
+			first.get(5, TimeUnit.SECONDS);
+			second.get(5, TimeUnit.SECONDS);
+			assertThat(started).hasValue(2);
+			assertThat(limiter.getInFlight()).isZero();
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void retryAfterHoldsBackTheNextWrite() throws Exception {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 16, THRESHOLD);
+		AtomicInteger calls = new AtomicInteger();
+		OkHttpClient client = client(limiter, chain -> calls.getAndIncrement() == 0
+				? response(chain, 429).newBuilder().header("Retry-After", "1").build() : response(chain, 200));
+		write(client);
+		long start = System.nanoTime();
+		write(client);
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(900));
+		assertThat(calls).hasValue(2);
+	}
+
+	private static OkHttpClient client(AdaptiveConcurrencyLimiter limiter, Interceptor server) {
+		return new OkHttpClient.Builder().addInterceptor(limiter).addInterceptor(server).build();
+	}
+
+	private static Interceptor respond(int code, long delayMillis) {
+		return chain -> {
+			try {
+				Thread.sleep(delayMillis);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return response(chain, code);
+		};
+	}
+
+	private static Response response(Interceptor.Chain chain, int code) {
+		return new Response.Builder().request(chain.request()).protocol(Protocol.HTTP_1_1).code(code).message("")
+				.body(ResponseBody.create(new byte[0], null)).build();
+	}
+
+	private static void write(OkHttpClient client) throws IOException {
+		Request request = new Request.Builder().url("http://localhost/api/v1/namespaces/default/configmaps")
+				.post(RequestBody.create(new byte[0], null)).build();
+		client.newCall(request).execute().close();
+	}
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples.controller;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.kubernetes.client.examples.controller.PriorityWorkQueue.Priority;
+import io.kubernetes.client.extended.controller.reconciler.Request;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PriorityWorkQueueTests {
+
+	private final PriorityWorkQueue queue = new PriorityWorkQueue("test", new SimpleMeterRegistry());
+
+	@Test
+	void firstComeFirstServedByDefault() throws Exception {
+		addAll("big", 3);
+		addAll("small", 1);
+		assertThat(take(4)).containsExactly("big", "big", "big", "small");
+	}
+
+	@Test
+	void fairQueuingTakesTurns() throws Exception {
+		queue.setFairQueuing(true);
+		addAll("big", 3);
+		addAll("small", 2);
+		assertThat(take(5)).containsExactly("big", "small", "big", "small", "big");
+	}
+
+	@Test
+	void weightsAndPriorities() throws Exception {
+		queue.setFairQueuing(true);
+		queue.setNamespaceWeights(Map.of("big", 2));
+		addAll("big", 4);
+		addAll("small", 2);
+		queue.add(new Request("urgent", "x"), Priority.HIGH);
+		assertThat(take(7)).containsExactly("urgent", "big", "big", "small", "big", "big", "small");
+	}
+
+	@Test
+	void addAfterShutDownIsIgnored() {
+		queue.shutDown();
+		queue.addAfter(new Request("default", "late"), Duration.ofSeconds(1));
+		assertThat(queue.delayed()).isZero();
+	}
+
+	@Test
+	void namespaceConcurrencyLimit() throws Exception {
+		queue.setFairQueuing(true);
+		queue.setNamespaceConcurrency(1, Map.of());
+		addAll("big", 2);
+		addAll("small", 1);
+		Request first = queue.get();
+		assertThat(first.getNamespace()).isEqualTo("big");
+		assertThat(queue.get().getNamespace()).isEqualTo("small");
+		queue.done(first);
+		assertThat(queue.get().getNamespace()).isEqualTo("big");
+	}
+
+	private void addAll(String namespace, int count) {
+		for (int i = 0; i < count; i++) {
+			queue.add(new Request(namespace, "item-" + i));
+		}
+	}
+
+	private List<String> take(int count) throws InterruptedException {
+		List<String> namespaces = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Request item = queue.get();
+			namespaces.add(item.getNamespace());
+			queue.done(item);
+		}
+		return namespaces;
+	}
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2019-2022 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.kubernetes.client.examples.models;
+
+import java.lang.reflect.Type;
+
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Test;
+
+import io.kubernetes.client.openapi.JSON;
+import io.kubernetes.client.openapi.models.V1ListMeta;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Round trips each model through the hand-written adapters, and compares the JSON with
+ * what Gson writes by reflection, so that a field missing from an adapter shows up here.
+ */
+public class ConfigClientTypeAdapterFactoryTests {
+
+	private final JSON reflective = new JSON();
+
+	private final JSON adapters = new JSON();
+
+	ConfigClientTypeAdapterFactoryTests() {
+		ConfigClientTypeAdapterFactory.register(adapters);
+	}
+
+	@Test
+	void specRoundTrip() {
+		roundTrip(spec("http://configserver:8888/app/default"), V1ConfigClientSpec.class);
+	}
+
+	@Test
+	void statusRoundTrip() {
+		roundTrip(status(), V1ConfigClientStatus.class);
+		roundTrip(new V1ConfigClientStatus().complete(true), V1ConfigClientStatus.class);
+	}
+
+	@Test
+	void configClientRoundTrip() {
+		roundTrip(client("one"), V1ConfigClient.class);
+	}
+
+	@Test
+	void listRoundTrip() {
+		V1ConfigClientList list = new V1ConfigClientList().apiVersion("spring.io/v1").kind("ConfigClientList")
+				.metadata(new V1ListMeta().resourceVersion("42")._continue("next"))
+				.addItemsItem(client("one")).addItemsItem(client("two"));
+		roundTrip(list, V1ConfigClientList.class);
+	}
+
+	@Test
+	void unknownFieldsAreSkipped() {
+		String json = "{\"complete\":true,\"conditions\":[{\"type\":\"Ready\"}],\"message\":\"ok\"}";
+		V1ConfigClientStatus status = adapters.deserialize(json, V1ConfigClientStatus.class);
+		assertThat(status).isEqualTo(new V1ConfigClientStatus().complete(true).message("ok"));
+	}
+
+	private <T> void roundTrip(T value, Type type) {
+		String json = adapters.serialize(value);
+		assertThat(JsonParser.parseString(json)).isEqualTo(JsonParser.parseString(reflective.serialize(value)));
+		T result = adapters.deserialize(json, type);
+		assertThat(result).isEqualTo(value);
+	}
+
+	private static V1ConfigClient client(String name) {
+		return new V1ConfigClient().apiVersion("spring.io/v1").kind("ConfigClient")
+				.metadata(new V1ObjectMeta().name(name).namespace("default").generation(3L).putLabelsItem("app", name))
+				.spec(spec("http://configserver:8888/" + name + "/default")).status(status());
+	}
+
+	private static V1ConfigClientSpec spec(String url) {
+		return new V1ConfigClientSpec().url(url).refreshInterval("5m").format("gzip");
+	}
+
+	private static V1ConfigClientStatus status() {
+		return new V1ConfigClientStatus().complete(false).observedGeneration(2L)
+				.message("Config server response rejected: More than 10000 properties");
+	}
+
+}